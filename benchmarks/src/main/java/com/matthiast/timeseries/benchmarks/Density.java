@@ -0,0 +1,51 @@
+package com.matthiast.timeseries.benchmarks;
+
+import com.matthiast.timeseries.TimeSeries;
+import com.matthiast.timeseries.TimeSlice;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Verteilung der Zeitscheiben in den Benchmark-Zeitreihen, jeweils mit 15-Minuten-Zeitscheiben
+public enum Density {
+    // Eine Zeitscheibe je Stunde mit Lücken; die zweite Zeitreihe füllt versetzt einen Teil der Lücken
+    SPARSE(60, 30),
+    // Lückenlos aneinander anschließende Zeitscheiben mit identischen Grenzen in beiden Zeitreihen
+    DENSE(15, 0),
+    // Lückenlos; die zweite Zeitreihe ist um 5 Minuten versetzt, sodass jede Zeitscheibe zwei andere überlappt
+    OVERLAPPING(15, 5);
+
+    static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final long SLICE_MINUTES = 15;
+
+    private final long stepMinutes;
+    private final long secondOffsetMinutes;
+
+    Density(long stepMinutes, long secondOffsetMinutes) {
+        this.stepMinutes = stepMinutes;
+        this.secondOffsetMinutes = secondOffsetMinutes;
+    }
+
+    LocalDateTime end(int size) {
+        return START.plusMinutes(stepMinutes * size + secondOffsetMinutes + SLICE_MINUTES);
+    }
+
+    List<TimeSlice> slices(int size, boolean second) {
+        var slices = new ArrayList<TimeSlice>(size);
+        var offset = second ? secondOffsetMinutes : 0;
+        for (int i = 0; i < size; i++) {
+            var start = START.plusMinutes(stepMinutes * i + offset);
+            slices.add(new TimeSlice(start, start.plusMinutes(SLICE_MINUTES), i % 97));
+        }
+        return slices;
+    }
+
+    TimeSeries series(int size, boolean second) {
+        var timeSeries = new TimeSeries(START, end(size));
+        for (TimeSlice slice : slices(size, second)) {
+            timeSeries.addTimeSlice(slice);
+        }
+        return timeSeries;
+    }
+}
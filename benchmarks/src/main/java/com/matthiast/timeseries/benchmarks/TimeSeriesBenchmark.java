@@ -0,0 +1,105 @@
+package com.matthiast.timeseries.benchmarks;
+
+import com.matthiast.timeseries.TimeSeries;
+import com.matthiast.timeseries.TimeSlice;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TimeSeriesBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"SPARSE", "DENSE"})
+    public Density density;
+
+    private List<TimeSlice> slices;
+    private TimeSeries timeSeries;
+    private LocalDateTime[] queryStarts;
+    private LocalDateTime[] queryEnds;
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        slices = density.slices(size, false);
+        timeSeries = density.series(size, false);
+        var random = new SplittableRandom(42);
+        var end = density.end(size);
+        long minutes = Duration.between(Density.START, end).toMinutes();
+        queryStarts = new LocalDateTime[QUERIES];
+        queryEnds = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryStarts[i] = Density.START.plusMinutes(random.nextLong(minutes)).plusSeconds(30);
+            queryEnds[i] = queryStarts[i].plusDays(1);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public TimeSeries bulkLoadAddTimeSlice() {
+        var result = new TimeSeries(Density.START, density.end(size));
+        for (TimeSlice slice : slices) {
+            result.addTimeSlice(slice);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public TimeSeries bulkLoadBuilder() {
+        return TimeSeries.builder(Density.START, density.end(size))
+                .addTimeSlices(slices)
+                .build();
+    }
+
+    @Benchmark
+    public double getValueAtTime() {
+        return timeSeries.getValueAtTime(nextQueryStart());
+    }
+
+    @Benchmark
+    public double getMinValue() {
+        int index = nextQuery();
+        return timeSeries.getMinValue(queryStarts[index], queryEnds[index]);
+    }
+
+    @Benchmark
+    public double getMaxValue() {
+        int index = nextQuery();
+        return timeSeries.getMaxValue(queryStarts[index], queryEnds[index]);
+    }
+
+    @Benchmark
+    public double getAverageValue() {
+        int index = nextQuery();
+        return timeSeries.getAverageValue(queryStarts[index], queryEnds[index]);
+    }
+
+    private LocalDateTime nextQueryStart() {
+        return queryStarts[nextQuery()];
+    }
+
+    private int nextQuery() {
+        query = (query + 1) & (QUERIES - 1);
+        return query;
+    }
+}
@@ -0,0 +1,57 @@
+package com.matthiast.timeseries.benchmarks;
+
+import com.matthiast.timeseries.BinaryOperation;
+import com.matthiast.timeseries.TimeSeries;
+import com.matthiast.timeseries.TimeSeriesAdder;
+import com.matthiast.timeseries.TimeSeriesCombiner;
+import com.matthiast.timeseries.TimeSeriesSubtractor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TimeSeriesOperationsBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"SPARSE", "DENSE", "OVERLAPPING"})
+    public Density density;
+
+    private final TimeSeriesAdder timeSeriesAdder = new TimeSeriesAdder();
+    private final TimeSeriesSubtractor timeSeriesSubtractor = new TimeSeriesSubtractor();
+    private final TimeSeriesCombiner multiplier = TimeSeriesCombiner.of(BinaryOperation.MULTIPLY);
+    private TimeSeries timeSeriesA;
+    private TimeSeries timeSeriesB;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timeSeriesA = density.series(size, false);
+        timeSeriesB = density.series(size, true);
+    }
+
+    @Benchmark
+    public TimeSeries addTimeSeries() {
+        return timeSeriesAdder.addTimeSeries(timeSeriesA, timeSeriesB);
+    }
+
+    @Benchmark
+    public TimeSeries addTimeSeriesParallel() {
+        return timeSeriesAdder.addTimeSeriesParallel(timeSeriesA, timeSeriesB);
+    }
+
+    @Benchmark
+    public TimeSeries subtractTimeSeries() {
+        return timeSeriesSubtractor.subtractTimeSeries(timeSeriesA, timeSeriesB);
+    }
+
+    @Benchmark
+    public TimeSeries multiplyTimeSeries() {
+        return multiplier.combine(timeSeriesA, timeSeriesB);
+    }
+}
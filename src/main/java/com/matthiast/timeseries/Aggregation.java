@@ -0,0 +1,13 @@
+package com.matthiast.timeseries;
+
+// Aggregation der Zeitscheiben, die ein Intervall beim Resampling überlappen
+public enum Aggregation {
+    // Mittelwert, gewichtet mit der Überlappungsdauer jeder Zeitscheibe
+    MEAN,
+    MIN,
+    MAX,
+    // Summe der Werte anteilig zur Überlappungsdauer, z. B. Energiemengen je Intervall
+    SUM,
+    // Wert der letzten Zeitscheibe im Intervall
+    LAST
+}
@@ -0,0 +1,88 @@
+package com.matthiast.timeseries;
+
+/**
+ * Unveränderlicher Index über die Zeitscheiben einer Zeitreihe: Präfixsummen für Durchschnitte
+ * und Segmentbäume für Minimum und Maximum. Abfragen erfolgen über Index-Bereiche {@code [from, to)}.
+ */
+final class AggregationIndex {
+
+    private final int size;
+    private final double[] valueSums;
+    private final double[] weightedSums;
+    private final long[] durationSums;
+    private final int[] nonFiniteCounts;
+    private final double[] minTree;
+    private final double[] maxTree;
+
+    AggregationIndex(long[] startTimes, long[] endTimes, double[] values, int size) {
+        this.size = size;
+        this.valueSums = new double[size + 1];
+        this.weightedSums = new double[size + 1];
+        this.durationSums = new long[size + 1];
+        this.nonFiniteCounts = new int[size + 1];
+        this.minTree = new double[2 * size];
+        this.maxTree = new double[2 * size];
+
+        for (int i = 0; i < size; i++) {
+            double value = values[i];
+            long duration = endTimes[i] - startTimes[i];
+            boolean finite = Double.isFinite(value);
+            // Nicht-endliche Werte würden alle folgenden Präfixsummen verfälschen; betroffene Bereiche rechnen linear
+            valueSums[i + 1] = valueSums[i] + (finite ? value : 0.0);
+            weightedSums[i + 1] = weightedSums[i] + (finite ? value * duration : 0.0);
+            durationSums[i + 1] = durationSums[i] + duration;
+            nonFiniteCounts[i + 1] = nonFiniteCounts[i] + (finite ? 0 : 1);
+            // NaN wird wie bei der linearen Suche nie Minimum oder Maximum
+            minTree[size + i] = Double.isNaN(value) ? Double.POSITIVE_INFINITY : value;
+            maxTree[size + i] = Double.isNaN(value) ? Double.NEGATIVE_INFINITY : value;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+            maxTree[node] = Math.max(maxTree[2 * node], maxTree[2 * node + 1]);
+        }
+    }
+
+    boolean isFinite(int from, int to) {
+        return nonFiniteCounts[to] == nonFiniteCounts[from];
+    }
+
+    double sum(int from, int to) {
+        return valueSums[to] - valueSums[from];
+    }
+
+    double weightedSum(int from, int to) {
+        return weightedSums[to] - weightedSums[from];
+    }
+
+    long duration(int from, int to) {
+        return durationSums[to] - durationSums[from];
+    }
+
+    // Liefert POSITIVE_INFINITY, wenn der Bereich keinen Wert enthält
+    double min(int from, int to) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int low = from + size, high = to + size; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                result = Math.min(result, minTree[low++]);
+            }
+            if ((high & 1) == 1) {
+                result = Math.min(result, minTree[--high]);
+            }
+        }
+        return result;
+    }
+
+    // Liefert NEGATIVE_INFINITY, wenn der Bereich keinen Wert enthält
+    double max(int from, int to) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (int low = from + size, high = to + size; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                result = Math.max(result, maxTree[low++]);
+            }
+            if ((high & 1) == 1) {
+                result = Math.max(result, maxTree[--high]);
+            }
+        }
+        return result;
+    }
+}
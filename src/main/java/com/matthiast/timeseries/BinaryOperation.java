@@ -0,0 +1,84 @@
+package com.matthiast.timeseries;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Verknüpfungen zweier Zeitreihen für {@link TimeSeriesCombiner}. Jede Operation legt fest, was mit
+ * Abschnitten geschieht, die nur eine Zeitreihe abdeckt: Addition, Minimum und Maximum übernehmen den
+ * vorhandenen Wert, Subtraktion negiert den Subtrahenden, Multiplikation und Division lassen den
+ * Abschnitt weg. Für Zeitreihen mit gleichen Zeitscheiben-Grenzen rechnet {@link #apply} in einer
+ * einfachen Schleife je Operation, die der JIT-Compiler vektorisieren kann.
+ */
+public enum BinaryOperation implements DoubleBinaryOperator {
+    ADD(DoubleUnaryOperator.identity(), DoubleUnaryOperator.identity()),
+    SUBTRACT(DoubleUnaryOperator.identity(), subtrahend -> -subtrahend),
+    MULTIPLY(null, null),
+    DIVIDE(null, null),
+    MIN(DoubleUnaryOperator.identity(), DoubleUnaryOperator.identity()),
+    MAX(DoubleUnaryOperator.identity(), DoubleUnaryOperator.identity());
+
+    private final DoubleUnaryOperator onlyFirst;
+    private final DoubleUnaryOperator onlySecond;
+
+    BinaryOperation(DoubleUnaryOperator onlyFirst, DoubleUnaryOperator onlySecond) {
+        this.onlyFirst = onlyFirst;
+        this.onlySecond = onlySecond;
+    }
+
+    @Override
+    public double applyAsDouble(double first, double second) {
+        return switch (this) {
+            case ADD -> first + second;
+            case SUBTRACT -> first - second;
+            case MULTIPLY -> first * second;
+            case DIVIDE -> first / second;
+            case MIN -> Math.min(first, second);
+            case MAX -> Math.max(first, second);
+        };
+    }
+
+    DoubleUnaryOperator onlyFirst() {
+        return onlyFirst;
+    }
+
+    DoubleUnaryOperator onlySecond() {
+        return onlySecond;
+    }
+
+    // Die Fallunterscheidung steht außerhalb der Schleifen, damit jede Schleife nur eine Rechenart enthält
+    void apply(double[] first, double[] second, double[] out, int count) {
+        switch (this) {
+            case ADD -> {
+                for (int i = 0; i < count; i++) {
+                    out[i] = first[i] + second[i];
+                }
+            }
+            case SUBTRACT -> {
+                for (int i = 0; i < count; i++) {
+                    out[i] = first[i] - second[i];
+                }
+            }
+            case MULTIPLY -> {
+                for (int i = 0; i < count; i++) {
+                    out[i] = first[i] * second[i];
+                }
+            }
+            case DIVIDE -> {
+                for (int i = 0; i < count; i++) {
+                    out[i] = first[i] / second[i];
+                }
+            }
+            case MIN -> {
+                for (int i = 0; i < count; i++) {
+                    out[i] = Math.min(first[i], second[i]);
+                }
+            }
+            case MAX -> {
+                for (int i = 0; i < count; i++) {
+                    out[i] = Math.max(first[i], second[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.matthiast.timeseries;
+
+// Liest mit BitOutput geschriebene Bitfolgen ab einer beliebigen Bitposition
+final class BitInput {
+
+    private final long[] words;
+    private long position;
+
+    BitInput(long[] words, long position) {
+        this.words = words;
+        this.position = position;
+    }
+
+    void seek(long position) {
+        this.position = position;
+    }
+
+    boolean readBit() {
+        boolean bit = (words[(int) (position >>> 6)] & (1L << (63 - (position & 63)))) != 0;
+        position++;
+        return bit;
+    }
+
+    long readBits(int count) {
+        if (count == 0) {
+            return 0;
+        }
+        int word = (int) (position >>> 6);
+        int used = (int) (position & 63);
+        int available = 64 - used;
+        long result;
+        if (count <= available) {
+            result = words[word] << used >>> (64 - count);
+        } else {
+            long high = words[word] << used >>> used;
+            int remaining = count - available;
+            result = high << remaining | words[word + 1] >>> (64 - remaining);
+        }
+        position += count;
+        return result;
+    }
+}
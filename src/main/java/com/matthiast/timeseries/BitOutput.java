@@ -0,0 +1,47 @@
+package com.matthiast.timeseries;
+
+import java.util.Arrays;
+
+// Schreibt Bitfolgen, höchstwertiges Bit zuerst, in ein wachsendes long-Array
+final class BitOutput {
+
+    private long[] words = new long[16];
+    private long bitLength;
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    void writeBits(long value, int count) {
+        if (count == 0) {
+            return;
+        }
+        ensureCapacity(bitLength + count);
+        int word = (int) (bitLength >>> 6);
+        int used = (int) (bitLength & 63);
+        long bits = count == 64 ? value : value & ((1L << count) - 1);
+        int free = 64 - used;
+        if (count <= free) {
+            words[word] |= bits << (free - count);
+        } else {
+            words[word] |= bits >>> (count - free);
+            words[word + 1] |= bits << (64 - (count - free));
+        }
+        bitLength += count;
+    }
+
+    long bitLength() {
+        return bitLength;
+    }
+
+    long[] toWords() {
+        return Arrays.copyOf(words, (int) ((bitLength + 63) >>> 6));
+    }
+
+    private void ensureCapacity(long bits) {
+        int required = (int) ((bits + 63) >>> 6) + 1;
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length + (words.length >> 1)));
+        }
+    }
+}
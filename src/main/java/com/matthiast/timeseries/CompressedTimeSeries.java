@@ -0,0 +1,329 @@
+package com.matthiast.timeseries;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Unveränderliche, komprimierte Zeitreihe im Stil von Gorilla. Die Zeitscheiben werden in Blöcken
+ * zu je {@value #BLOCK_SIZE} Stück abgelegt: Startzeiten als Delta-of-Delta, Dauern als Delta zur
+ * vorherigen Dauer und Werte als XOR zum vorherigen Wert. Regelmäßige Zeitscheiben mit gleichem Wert
+ * kosten so drei Bit. Abfragen dekodieren nur die Blöcke, die den Abfragezeitraum berühren.
+ */
+public final class CompressedTimeSeries {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final int size;
+    private final long[] blockFirstStarts;
+    private final long[] blockLastEnds;
+    private final long[] blockBitOffsets;
+    private final long[] words;
+
+    CompressedTimeSeries(LocalDateTime startDate, LocalDateTime endDate, int size, long[] blockFirstStarts, long[] blockLastEnds, long[] blockBitOffsets, long[] words) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.size = size;
+        this.blockFirstStarts = blockFirstStarts;
+        this.blockLastEnds = blockLastEnds;
+        this.blockBitOffsets = blockBitOffsets;
+        this.words = words;
+    }
+
+    public static CompressedTimeSeries compress(TimeSeries timeSeries) {
+        return compress(timeSeries.cursor(), timeSeries.getStartDate(), timeSeries.getEndDate());
+    }
+
+    public static CompressedTimeSeries compress(SliceCursor cursor, LocalDateTime startDate, LocalDateTime endDate) {
+        var output = new BitOutput();
+        var blockFirstStarts = new long[16];
+        var blockLastEnds = new long[16];
+        var blockBitOffsets = new long[16];
+        int size = 0;
+        long previousStart = 0;
+        long previousEnd = Long.MIN_VALUE;
+        long previousDelta = 0;
+        long previousDuration = 0;
+        var values = new XorEncoder(output);
+
+        while (cursor.next()) {
+            long start = cursor.startTime();
+            long end = cursor.endTime();
+            if (start < previousEnd) {
+                throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
+            }
+            long duration = end - start;
+            int block = size / BLOCK_SIZE;
+            if (size % BLOCK_SIZE == 0) {
+                if (block == blockFirstStarts.length) {
+                    int capacity = block + (block >> 1);
+                    blockFirstStarts = Arrays.copyOf(blockFirstStarts, capacity);
+                    blockLastEnds = Arrays.copyOf(blockLastEnds, capacity);
+                    blockBitOffsets = Arrays.copyOf(blockBitOffsets, capacity);
+                }
+                blockFirstStarts[block] = start;
+                blockBitOffsets[block] = output.bitLength();
+                output.writeBits(duration, 64);
+                values.reset(cursor.value());
+                previousDelta = 0;
+            } else {
+                long delta = start - previousStart;
+                writeDelta(output, delta - previousDelta);
+                writeDelta(output, duration - previousDuration);
+                values.write(cursor.value());
+                previousDelta = delta;
+            }
+            blockLastEnds[block] = end;
+            previousStart = start;
+            previousEnd = end;
+            previousDuration = duration;
+            size++;
+        }
+
+        int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return new CompressedTimeSeries(startDate, endDate, size, Arrays.copyOf(blockFirstStarts, blocks),
+                Arrays.copyOf(blockLastEnds, blocks), Arrays.copyOf(blockBitOffsets, blocks), output.toWords());
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getCompressedSizeInBytes() {
+        return 8L * (words.length + 3L * blockFirstStarts.length);
+    }
+
+    public SliceCursor cursor() {
+        return new BlockCursor(0);
+    }
+
+    public double getValueAtTime(LocalDateTime time) {
+        long millis = EpochTime.toEpochMillis(time);
+        // Letzter Block, der vor time beginnt; nur er kann die gesuchte Zeitscheibe enthalten
+        int block = firstBlock(blockFirstStarts, millis, false) - 1;
+        if (block < 0) {
+            return Double.NaN;
+        }
+        var cursor = new BlockCursor(block);
+        long end = Long.MIN_VALUE;
+        double value = Double.NaN;
+        while (cursor.next() && cursor.startTime() < millis) {
+            end = cursor.endTime();
+            value = cursor.value();
+        }
+        return millis < end ? value : Double.NaN;
+    }
+
+    public double getMinValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return SliceCursors.getMinValue(cursorFrom(startTime), startTime, endTime);
+    }
+
+    public double getMaxValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return SliceCursors.getMaxValue(cursorFrom(startTime), startTime, endTime);
+    }
+
+    public double getAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return SliceCursors.getAverageValue(cursorFrom(startTime), startTime, endTime);
+    }
+
+    public TimeSeries decompress() {
+        var builder = TimeSeries.builder(startDate, endDate).expectedSize(size);
+        var cursor = cursor();
+        while (cursor.next()) {
+            builder.addTimeSlice(cursor.startTime(), cursor.endTime(), cursor.value());
+        }
+        return builder.build();
+    }
+
+    long[] blockFirstStarts() {
+        return blockFirstStarts;
+    }
+
+    long[] blockLastEnds() {
+        return blockLastEnds;
+    }
+
+    long[] blockBitOffsets() {
+        return blockBitOffsets;
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    // Beginnt beim ersten Block, der nach startTime endet
+    private SliceCursor cursorFrom(LocalDateTime startTime) {
+        return new BlockCursor(firstBlock(blockLastEnds, EpochTime.toEpochMillis(startTime), true));
+    }
+
+    // Erster Block, dessen Eintrag nach time liegt (strict) bzw. nicht vor time liegt
+    private static int firstBlock(long[] times, long time, boolean strictlyAfter) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (strictlyAfter ? times[mid] > time : times[mid] >= time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // Delta-Kodierung mit Präfix: 0 | 10 + 7 Bit | 110 + 9 Bit | 1110 + 12 Bit | 1111 + 64 Bit
+    private static void writeDelta(BitOutput output, long delta) {
+        if (delta == 0) {
+            output.writeBits(0b0, 1);
+        } else if (delta >= -64 && delta <= 63) {
+            output.writeBits(0b10, 2);
+            output.writeBits(delta, 7);
+        } else if (delta >= -256 && delta <= 255) {
+            output.writeBits(0b110, 3);
+            output.writeBits(delta, 9);
+        } else if (delta >= -2048 && delta <= 2047) {
+            output.writeBits(0b1110, 4);
+            output.writeBits(delta, 12);
+        } else {
+            output.writeBits(0b1111, 4);
+            output.writeBits(delta, 64);
+        }
+    }
+
+    private static long readDelta(BitInput input) {
+        if (!input.readBit()) {
+            return 0;
+        }
+        if (!input.readBit()) {
+            return signExtend(input.readBits(7), 7);
+        }
+        if (!input.readBit()) {
+            return signExtend(input.readBits(9), 9);
+        }
+        if (!input.readBit()) {
+            return signExtend(input.readBits(12), 12);
+        }
+        return input.readBits(64);
+    }
+
+    private static long signExtend(long bits, int count) {
+        return bits << (64 - count) >> (64 - count);
+    }
+
+    // XOR-Kodierung der Werte: 0 bei gleichem Wert, sonst die signifikanten Bits im alten oder einem neuen Fenster
+    private static final class XorEncoder {
+        private final BitOutput output;
+        private long previousBits;
+        private int previousLeading;
+        private int previousTrailing;
+
+        private XorEncoder(BitOutput output) {
+            this.output = output;
+        }
+
+        private void reset(double value) {
+            previousBits = Double.doubleToRawLongBits(value);
+            previousLeading = -1;
+            output.writeBits(previousBits, 64);
+        }
+
+        private void write(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            long xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                output.writeBit(false);
+                return;
+            }
+            output.writeBit(true);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                output.writeBit(false);
+                output.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                output.writeBit(true);
+                output.writeBits(leading, 5);
+                output.writeBits(significant - 1, 6);
+                output.writeBits(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+    }
+
+    private final class BlockCursor implements SliceCursor {
+        private final BitInput input = new BitInput(words, 0);
+        private int index;
+        private long startTime;
+        private long duration;
+        private long delta;
+        private long valueBits;
+        private int leading;
+        private int trailing;
+
+        private BlockCursor(int block) {
+            this.index = block * BLOCK_SIZE;
+        }
+
+        @Override
+        public boolean next() {
+            if (index >= size) {
+                return false;
+            }
+            if (index % BLOCK_SIZE == 0) {
+                int block = index / BLOCK_SIZE;
+                input.seek(blockBitOffsets[block]);
+                startTime = blockFirstStarts[block];
+                duration = input.readBits(64);
+                valueBits = input.readBits(64);
+                delta = 0;
+                leading = -1;
+            } else {
+                delta += readDelta(input);
+                startTime += delta;
+                duration += readDelta(input);
+                readValue();
+            }
+            index++;
+            return true;
+        }
+
+        private void readValue() {
+            if (!input.readBit()) {
+                return;
+            }
+            if (input.readBit()) {
+                leading = (int) input.readBits(5);
+                int significant = (int) input.readBits(6) + 1;
+                trailing = 64 - leading - significant;
+            }
+            valueBits ^= input.readBits(64 - leading - trailing) << trailing;
+        }
+
+        @Override
+        public long startTime() {
+            return startTime;
+        }
+
+        @Override
+        public long endTime() {
+            return startTime + duration;
+        }
+
+        @Override
+        public double value() {
+            return Double.longBitsToDouble(valueBits);
+        }
+    }
+}
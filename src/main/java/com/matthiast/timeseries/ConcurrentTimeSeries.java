@@ -0,0 +1,338 @@
+package com.matthiast.timeseries;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Zeitreihe für parallelen Import und gleichzeitige Abfragen. Der Zeitraum ist in Segmente fester
+ * Länge aufgeteilt; eine Zeitscheibe gehört zum Segment ihrer Startzeit. Angelegt werden nur Segmente,
+ * die tatsächlich Zeitscheiben enthalten. Schreiber sperren die Sperrstreifen der Segmente, die ihre
+ * Zeitscheibe berührt ({@value #LOCK_STRIPES} Streifen, Segment-Schlüssel modulo Streifenzahl), sodass
+ * Importe in verschiedene Segmente (z. B. je Tag) in der Regel nicht aufeinander warten. Leser sperren
+ * nie: jedes Segment veröffentlicht seine Spalten als unveränderlichen Stand über ein volatile-Feld.
+ * <p>
+ * Eine Abfrage sieht jedes Segment in einem konsistenten Stand, über mehrere Segmente hinweg aber
+ * keine Momentaufnahme: Bereichsabfragen und {@link #snapshot()} können ein späteres Einfügen in einem
+ * Segment sehen, ein früheres in einem anderen dagegen nicht. Konsistente Stände über Segmente hinweg
+ * gibt es nur, wenn während der Abfrage niemand schreibt.
+ */
+public final class ConcurrentTimeSeries {
+
+    static final int LOCK_STRIPES = 64;
+
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final long startMillis;
+    private final long endMillis;
+    private final long segmentMillis;
+    // Enthält nur nicht-leere Segmente, damit die Suche nach dem vorherigen Segment logarithmisch bleibt
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ConcurrentTimeSeries(LocalDateTime startDate, LocalDateTime endDate, Duration segmentLength) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Startdatum muss vor Enddatum liegen");
+        }
+        if (segmentLength.toMillis() <= 0) {
+            throw new IllegalArgumentException("Die Segmentlänge muss positiv sein");
+        }
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startMillis = EpochTime.toEpochMillis(startDate);
+        this.endMillis = EpochTime.toEpochMillis(endDate);
+        this.segmentMillis = segmentLength.toMillis();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void addTimeSlice(TimeSlice timeSlice) {
+        addTimeSlice(EpochTime.toEpochMillis(timeSlice.startTime()), EpochTime.toEpochMillis(timeSlice.endTime()), timeSlice.value());
+    }
+
+    public void addTimeSlice(long start, long end, double value) {
+        if (start > end) {
+            throw new IllegalArgumentException("Die Startzeit der Zeitscheibe muss vor ihrer Endzeit liegen");
+        }
+        if (!TimeSeries.isValidTimeFrame(startMillis, endMillis, start, end)) {
+            throw new IllegalArgumentException("Die Zeitscheibe liegt außerhalb des gültigen Zeitraums.");
+        }
+
+        long firstKey = segmentKey(start);
+        long lastKey = segmentKey(Math.max(start, end - 1));
+        long stripes = stripes(firstKey, lastKey);
+        // Sperren immer in aufsteigender Reihenfolge, damit sich Schreiber mit überlappenden Bereichen nicht verklemmen
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            if ((stripes & 1L << i) != 0) {
+                locks[i].lock();
+            }
+        }
+        try {
+            if (overlapsExistingSlice(firstKey, lastKey, start, end)) {
+                throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
+            }
+            var segment = segments.get(firstKey);
+            if (segment == null) {
+                // Das Segment wird erst mit seiner ersten Zeitscheibe sichtbar
+                segments.put(firstKey, new Segment(start, end, value));
+            } else {
+                segment.insert(start, end, value);
+            }
+        } finally {
+            for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+                if ((stripes & 1L << i) != 0) {
+                    locks[i].unlock();
+                }
+            }
+        }
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    public double getValueAtTime(LocalDateTime time) {
+        long millis = EpochTime.toEpochMillis(time);
+        long key = segmentKey(millis);
+        var segment = segments.get(key);
+        if (segment != null) {
+            Columns columns = segment.columns;
+            int index = columns.firstStartingAtOrAfter(millis) - 1;
+            if (index >= 0) {
+                return millis > columns.startTimes[index] && millis < columns.endTimes[index] ? columns.values[index] : Double.NaN;
+            }
+        }
+        Columns previous = lastNonEmptyBefore(key);
+        if (previous != null) {
+            int index = previous.size - 1;
+            if (millis > previous.startTimes[index] && millis < previous.endTimes[index]) {
+                return previous.values[index];
+            }
+        }
+        return Double.NaN;
+    }
+
+    public double getMinValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double minValue = collect(startTime, endTime).min;
+        return minValue == Double.POSITIVE_INFINITY ? Double.NaN : minValue;
+    }
+
+    public double getMaxValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double maxValue = collect(startTime, endTime).max;
+        return maxValue == Double.NEGATIVE_INFINITY ? Double.NaN : maxValue;
+    }
+
+    public double getAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        var stats = collect(startTime, endTime);
+        return stats.count == 0 ? Double.NaN : stats.sum / stats.count;
+    }
+
+    // Unveränderliche Kopie aller Zeitscheiben, z. B. für TimeSeriesAdder oder TimeSeriesFile
+    public TimeSeries snapshot() {
+        var builder = TimeSeries.builder(startDate, endDate);
+        for (Segment segment : segments.values()) {
+            Columns columns = segment.columns;
+            for (int i = 0; i < columns.size; i++) {
+                builder.addTimeSlice(columns.startTimes[i], columns.endTimes[i], columns.values[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    private long segmentKey(long time) {
+        return Math.floorDiv(time - startMillis, segmentMillis);
+    }
+
+    // Bitmaske der Sperrstreifen für die Segmente firstKey bis lastKey
+    private static long stripes(long firstKey, long lastKey) {
+        if (lastKey - firstKey + 1 >= LOCK_STRIPES) {
+            return -1L;
+        }
+        long stripes = 0;
+        for (long key = firstKey; key <= lastKey; key++) {
+            stripes |= 1L << Math.floorMod(key, LOCK_STRIPES);
+        }
+        return stripes;
+    }
+
+    // Wird nur unter den Sperrstreifen der Segmente firstKey bis lastKey aufgerufen; jeder Schreiber, dessen
+    // Zeitscheibe die neue überlappen könnte, berührt mindestens eines dieser Segmente und wartet deshalb
+    private boolean overlapsExistingSlice(long firstKey, long lastKey, long start, long end) {
+        // Aus früheren Segmenten kann nur deren letzte Zeitscheibe hineinragen
+        Columns previous = lastNonEmptyBefore(firstKey);
+        if (previous != null && previous.endTimes[previous.size - 1] > start) {
+            return true;
+        }
+        var first = segments.get(firstKey);
+        if (first != null) {
+            Columns columns = first.columns;
+            int candidate = columns.firstEndingAfter(start);
+            if (candidate < columns.size && columns.startTimes[candidate] < end) {
+                return true;
+            }
+        }
+        // Von den späteren Segmenten genügt das erste nicht-leere
+        var next = segments.higherEntry(firstKey);
+        return next != null && next.getKey() <= lastKey && next.getValue().columns.startTimes[0] < end;
+    }
+
+    private Columns lastNonEmptyBefore(long key) {
+        var previous = segments.lowerEntry(key);
+        return previous != null ? previous.getValue().columns : null;
+    }
+
+    private RangeStats collect(LocalDateTime startTime, LocalDateTime endTime) {
+        long start = EpochTime.toEpochMillis(startTime);
+        long end = EpochTime.toEpochMillis(endTime);
+        var stats = new RangeStats();
+        long firstKey = segmentKey(start);
+
+        Columns previous = lastNonEmptyBefore(firstKey);
+        if (previous != null) {
+            int index = previous.size - 1;
+            if (previous.endTimes[index] > start && previous.startTimes[index] < end) {
+                stats.add(previous.values[index]);
+            }
+        }
+        for (Map.Entry<Long, Segment> entry : segments.subMap(firstKey, true, Math.max(firstKey, segmentKey(end)), true).entrySet()) {
+            Columns columns = entry.getValue().columns;
+            int from = entry.getKey() == firstKey ? columns.firstEndingAfter(start) : 0;
+            for (int i = from; i < columns.size && columns.startTimes[i] < end; i++) {
+                stats.add(columns.values[i]);
+            }
+        }
+        return stats;
+    }
+
+    private static final class Segment {
+        private volatile Columns columns;
+
+        private Segment(long start, long end, double value) {
+            var startTimes = new long[8];
+            var endTimes = new long[8];
+            var values = new double[8];
+            startTimes[0] = start;
+            endTimes[0] = end;
+            values[0] = value;
+            columns = new Columns(startTimes, endTimes, values, 1);
+        }
+
+        // Nur unter dem Sperrstreifen des Segments aufrufen
+        private void insert(long start, long end, double value) {
+            Columns current = columns;
+            int size = current.size;
+            boolean append = size == 0 || current.startTimes[size - 1] < start
+                    || current.startTimes[size - 1] == start && current.endTimes[size - 1] <= end;
+            if (append && size < current.startTimes.length) {
+                // Leser älterer Stände lesen nie über ihre eigene Größe hinaus, daher darf ans Ende geschrieben werden
+                current.startTimes[size] = start;
+                current.endTimes[size] = end;
+                current.values[size] = value;
+                columns = new Columns(current.startTimes, current.endTimes, current.values, size + 1);
+                return;
+            }
+            int index = append ? size : current.insertionPoint(start, end);
+            int capacity = Math.max(8, size + (size >> 1) + 1);
+            var startTimes = new long[capacity];
+            var endTimes = new long[capacity];
+            var values = new double[capacity];
+            System.arraycopy(current.startTimes, 0, startTimes, 0, index);
+            System.arraycopy(current.endTimes, 0, endTimes, 0, index);
+            System.arraycopy(current.values, 0, values, 0, index);
+            startTimes[index] = start;
+            endTimes[index] = end;
+            values[index] = value;
+            System.arraycopy(current.startTimes, index, startTimes, index + 1, size - index);
+            System.arraycopy(current.endTimes, index, endTimes, index + 1, size - index);
+            System.arraycopy(current.values, index, values, index + 1, size - index);
+            columns = new Columns(startTimes, endTimes, values, size + 1);
+        }
+    }
+
+    // Veröffentlichter Stand eines Segments; Einträge unterhalb von size werden nie mehr verändert
+    private static final class Columns {
+        private final long[] startTimes;
+        private final long[] endTimes;
+        private final double[] values;
+        private final int size;
+
+        private Columns(long[] startTimes, long[] endTimes, double[] values, int size) {
+            this.startTimes = startTimes;
+            this.endTimes = endTimes;
+            this.values = values;
+            this.size = size;
+        }
+
+        private int insertionPoint(long start, long end) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startTimes[mid] < start || startTimes[mid] == start && endTimes[mid] <= end) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstEndingAfter(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (endTimes[mid] > time) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        private int firstStartingAtOrAfter(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startTimes[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class RangeStats {
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private int count;
+
+        private void add(double value) {
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+            sum += value;
+            count++;
+        }
+    }
+}
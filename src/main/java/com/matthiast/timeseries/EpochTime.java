@@ -0,0 +1,23 @@
+package com.matthiast.timeseries;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Umrechnung zwischen {@link LocalDateTime} und den intern verwendeten Millisekunden seit 1970-01-01T00:00.
+ * Zeitpunkte werden ohne Zeitzone als UTC interpretiert; Anteile unterhalb einer Millisekunde entfallen.
+ */
+public final class EpochTime {
+
+    private EpochTime() {
+    }
+
+    public static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,168 @@
+package com.matthiast.timeseries;
+
+/**
+ * Formatiert und parst Millisekunden seit 1970 (UTC) direkt auf Byte- bzw. Zeichenpuffern, ohne
+ * {@code LocalDateTime} oder {@code DateTimeFormatter}. Unterstützt werden die Jahre 0000 bis 9999.
+ * Die Umrechnung zwischen Tagen und Kalenderdatum folgt den Algorithmen von Howard Hinnant.
+ */
+final class EpochTimeFormat {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private EpochTimeFormat() {
+    }
+
+    // yyyy-MM-ddTHH:mm:ss, Millisekunden nur wenn vorhanden; liefert die Position hinter dem Zeitstempel
+    static int formatIso(long epochMillis, byte[] out, int offset) {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        long date = civilFromDays(days);
+        int position = offset;
+        position = writeDigits(out, position, year(date), 4);
+        out[position++] = '-';
+        position = writeDigits(out, position, month(date), 2);
+        out[position++] = '-';
+        position = writeDigits(out, position, day(date), 2);
+        out[position++] = 'T';
+        position = writeDigits(out, position, millisOfDay / 3_600_000, 2);
+        out[position++] = ':';
+        position = writeDigits(out, position, millisOfDay / 60_000 % 60, 2);
+        out[position++] = ':';
+        position = writeDigits(out, position, millisOfDay / 1000 % 60, 2);
+        if (millisOfDay % 1000 != 0) {
+            out[position++] = '.';
+            position = writeDigits(out, position, millisOfDay % 1000, 3);
+        }
+        return position;
+    }
+
+    // dd.MM.yyyy HH:mm wie bei TimeSeriesPrinter
+    static void formatGerman(long epochMillis, StringBuilder out) {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        long date = civilFromDays(days);
+        appendDigits(out, day(date), 2).append('.');
+        appendDigits(out, month(date), 2).append('.');
+        appendDigits(out, year(date), 4).append(' ');
+        appendDigits(out, millisOfDay / 3_600_000, 2).append(':');
+        appendDigits(out, millisOfDay / 60_000 % 60, 2);
+    }
+
+    // yyyy-MM-dd[T| ]HH:mm[:ss[.SSS…]][Z] im Bereich [from, to)
+    static long parseIso(byte[] in, int from, int to) {
+        int length = to - from;
+        if (length > 0 && in[to - 1] == 'Z') {
+            length--;
+        }
+        if (length < 16 || in[from + 4] != '-' || in[from + 7] != '-' || in[from + 10] != 'T' && in[from + 10] != ' ' || in[from + 13] != ':') {
+            throw new IllegalArgumentException("Ungültiger Zeitstempel");
+        }
+        int year = readDigits(in, from, 4);
+        int month = readDigits(in, from + 5, 2);
+        int day = readDigits(in, from + 8, 2);
+        int hour = readDigits(in, from + 11, 2);
+        int minute = readDigits(in, from + 14, 2);
+        int second = 0;
+        int millis = 0;
+        int position = from + 16;
+        int end = from + length;
+        if (position < end) {
+            if (in[position] != ':' || end - position < 3) {
+                throw new IllegalArgumentException("Ungültiger Zeitstempel");
+            }
+            second = readDigits(in, position + 1, 2);
+            position += 3;
+            if (position < end) {
+                if (in[position] != '.' || end - position < 2 || end - position > 10) {
+                    throw new IllegalArgumentException("Ungültiger Zeitstempel");
+                }
+                int digits = end - position - 1;
+                millis = readDigits(in, position + 1, digits);
+                // Bruchteile unterhalb einer Millisekunde entfallen wie bei EpochTime
+                for (; digits > 3; digits--) {
+                    millis /= 10;
+                }
+                for (; digits < 3; digits++) {
+                    millis *= 10;
+                }
+            }
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour > 23 || minute > 59 || second > 59) {
+            throw new IllegalArgumentException("Ungültiger Zeitstempel");
+        }
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY + hour * 3_600_000L + minute * 60_000L + second * 1000L + millis;
+    }
+
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    // Jahr, Monat und Tag in einem long: yyyy * 10000 + MM * 100 + dd
+    private static long civilFromDays(long days) {
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Das Jahr " + year + " liegt außerhalb des unterstützten Bereichs");
+        }
+        return year * 10_000 + month * 100 + day;
+    }
+
+    private static int year(long date) {
+        return (int) (date / 10_000);
+    }
+
+    private static int month(long date) {
+        return (int) (date / 100 % 100);
+    }
+
+    private static int day(long date) {
+        return (int) (date % 100);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int writeDigits(byte[] out, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + count;
+    }
+
+    private static StringBuilder appendDigits(StringBuilder out, int value, int count) {
+        for (int divisor = count == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+        return out;
+    }
+
+    private static int readDigits(byte[] in, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = in[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Ungültiger Zeitstempel");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
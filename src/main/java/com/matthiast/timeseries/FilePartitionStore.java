@@ -0,0 +1,90 @@
+package com.matthiast.timeseries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// Legt jede Partition als eigene Datei im Format von TimeSeriesFile in einem Verzeichnis ab, daneben ihre Zusammenfassung
+public final class FilePartitionStore implements PartitionStore {
+
+    private static final Pattern SUMMARY_FILE_NAME = Pattern.compile("partition-(-?\\d+)\\.summary");
+    private static final int SUMMARY_MAGIC = 0x54535053;
+    private static final int SUMMARY_SIZE = 3 * Integer.BYTES + 8 * Long.BYTES;
+
+    private final Path directory;
+
+    public FilePartitionStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public SortedMap<Long, PartitionSummary> summaries() throws IOException {
+        var summaries = new TreeMap<Long, PartitionSummary>();
+        if (Files.isDirectory(directory)) {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    var matcher = SUMMARY_FILE_NAME.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        summaries.put(Long.parseLong(matcher.group(1)), readSummary(file));
+                    }
+                }
+            }
+        }
+        return summaries;
+    }
+
+    @Override
+    public void save(long partition, TimeSeries timeSeries, PartitionSummary summary) throws IOException {
+        Files.createDirectories(directory);
+        TimeSeriesFile.write(timeSeries, file(partition));
+        // Erst nach den Daten schreiben, damit summaries() nur vollständig abgelegte Partitionen meldet
+        Files.write(summaryFile(partition), writeSummary(summary));
+    }
+
+    @Override
+    public TimeSeries load(long partition) throws IOException {
+        return TimeSeriesFile.map(file(partition)).toTimeSeries();
+    }
+
+    private Path file(long partition) {
+        return directory.resolve("partition-" + partition + ".ts");
+    }
+
+    private Path summaryFile(long partition) {
+        return directory.resolve("partition-" + partition + ".summary");
+    }
+
+    private static byte[] writeSummary(PartitionSummary summary) {
+        var buffer = ByteBuffer.allocate(SUMMARY_SIZE).order(TimeSeriesFile.BYTE_ORDER);
+        buffer.putInt(SUMMARY_MAGIC)
+                .putInt(TimeSeriesFile.VERSION)
+                .putInt(summary.count())
+                .putDouble(summary.min())
+                .putDouble(summary.max())
+                .putDouble(summary.sum())
+                .putLong(summary.firstStart())
+                .putLong(summary.firstEnd())
+                .putLong(summary.lastStart())
+                .putLong(summary.lastEnd())
+                .putDouble(summary.lastValue());
+        return buffer.array();
+    }
+
+    private static PartitionSummary readSummary(Path file) throws IOException {
+        var bytes = Files.readAllBytes(file);
+        var buffer = ByteBuffer.wrap(bytes).order(TimeSeriesFile.BYTE_ORDER);
+        if (bytes.length != SUMMARY_SIZE || buffer.getInt() != SUMMARY_MAGIC) {
+            throw new IOException("Keine Partitions-Zusammenfassung: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != TimeSeriesFile.VERSION) {
+            throw new IOException("Nicht unterstützte Version " + version + " der Partitions-Zusammenfassung: " + file);
+        }
+        return new PartitionSummary(buffer.getInt(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getDouble());
+    }
+}
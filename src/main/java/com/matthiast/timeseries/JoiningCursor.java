@@ -0,0 +1,45 @@
+package com.matthiast.timeseries;
+
+// Fasst direkt aneinander anschließende Zeitscheiben mit gleichem Wert aus der Quelle zusammen
+final class JoiningCursor implements SliceCursor {
+
+    private final SliceCursor source;
+    private boolean sourceHasNext;
+    private long startTime;
+    private long endTime;
+    private double value;
+
+    JoiningCursor(SliceCursor source) {
+        this.source = source;
+        this.sourceHasNext = source.next();
+    }
+
+    @Override
+    public boolean next() {
+        if (!sourceHasNext) {
+            return false;
+        }
+        startTime = source.startTime();
+        endTime = source.endTime();
+        value = source.value();
+        while ((sourceHasNext = source.next()) && source.startTime() == endTime && source.value() == value) {
+            endTime = source.endTime();
+        }
+        return true;
+    }
+
+    @Override
+    public long startTime() {
+        return startTime;
+    }
+
+    @Override
+    public long endTime() {
+        return endTime;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+}
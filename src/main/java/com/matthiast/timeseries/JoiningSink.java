@@ -0,0 +1,33 @@
+package com.matthiast.timeseries;
+
+// Fasst direkt aneinander anschließende Abschnitte mit gleichem Wert zusammen, bevor sie in die Zeitreihe geschrieben werden
+final class JoiningSink {
+    private final TimeSeries result;
+    private boolean pending;
+    private long pendingStart;
+    private long pendingEnd;
+    private double pendingValue;
+
+    JoiningSink(TimeSeries result) {
+        this.result = result;
+    }
+
+    void accept(long start, long end, double value) {
+        if (pending && pendingEnd == start && pendingValue == value) {
+            pendingEnd = end;
+            return;
+        }
+        flush();
+        pending = true;
+        pendingStart = start;
+        pendingEnd = end;
+        pendingValue = value;
+    }
+
+    void flush() {
+        if (pending) {
+            result.append(pendingStart, pendingEnd, pendingValue);
+            pending = false;
+        }
+    }
+}
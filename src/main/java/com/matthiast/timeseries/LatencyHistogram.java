@@ -0,0 +1,66 @@
+package com.matthiast.timeseries;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histogramm über Nanosekunden mit Zweierpotenz-Buckets; Bucket i zählt Dauern unter 2^i ns
+final class LatencyHistogram {
+
+    private final LongAdder[] buckets = new LongAdder[64];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        buckets[Math.min(63, 64 - Long.numberOfLeadingZeros(duration))].increment();
+        count.increment();
+        totalNanos.add(duration);
+        maxNanos.accumulate(duration);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long meanNanos() {
+        long count = count();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    long maxNanos() {
+        return maxNanos.get();
+    }
+
+    // Obere Grenze des Buckets, in dem das Quantil liegt
+    long percentileNanos(double quantile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= threshold) {
+                return Math.min(maxNanos(), i == 63 ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return maxNanos();
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
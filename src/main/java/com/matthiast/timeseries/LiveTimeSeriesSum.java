@@ -0,0 +1,104 @@
+package com.matthiast.timeseries;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Summe mehrerer Zeitreihen, die bei Änderungen der Quellen aktuell bleibt. Die Summe meldet sich
+ * als {@link TimeSeriesListener} an allen Quellen an; ändert sich eine Quelle, wird nur der betroffene
+ * Zeitraum (erweitert um die angrenzenden Zeitscheiben der Summe, damit gleiche Nachbarn wieder
+ * verbunden werden) aus allen Quellen neu summiert und in das Ergebnis eingesetzt. Das Ergebnis
+ * entspricht stets dem von {@link TimeSeriesAdder#addAll}.
+ */
+public final class LiveTimeSeriesSum implements AutoCloseable {
+
+    private final List<TimeSeries> sources;
+    private final double[] weights;
+    private final TimeSeries result;
+    private final TimeSeriesListener listener = (timeSeries, startTime, endTime) -> update(startTime, endTime);
+
+    public LiveTimeSeriesSum(Collection<TimeSeries> sources) {
+        this.sources = List.copyOf(sources);
+        this.weights = new double[this.sources.size()];
+        Arrays.fill(weights, 1.0);
+        this.result = MultiSeriesSweep.sum(this.sources, weights);
+        for (TimeSeries source : this.sources) {
+            source.addListener(listener);
+        }
+    }
+
+    public LocalDateTime getStartDate() {
+        return result.getStartDate();
+    }
+
+    public LocalDateTime getEndDate() {
+        return result.getEndDate();
+    }
+
+    public SliceCursor cursor() {
+        return result.cursor();
+    }
+
+    public double getValueAtTime(LocalDateTime time) {
+        return result.getValueAtTime(time);
+    }
+
+    public double getMinValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return result.getMinValue(startTime, endTime);
+    }
+
+    public double getMaxValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return result.getMaxValue(startTime, endTime);
+    }
+
+    public double getAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return result.getAverageValue(startTime, endTime);
+    }
+
+    public double getTimeWeightedAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return result.getTimeWeightedAverageValue(startTime, endTime);
+    }
+
+    // Unveränderliche Kopie des aktuellen Stands
+    public TimeSeries snapshot() {
+        var builder = TimeSeries.builder(result.getStartDate(), result.getEndDate()).expectedSize(result.size());
+        for (int i = 0; i < result.size(); i++) {
+            builder.addTimeSlice(result.startTimeAt(i), result.endTimeAt(i), result.valueAt(i));
+        }
+        return builder.build();
+    }
+
+    // Meldet die Summe von allen Quellen ab; danach bleibt der letzte Stand erhalten
+    @Override
+    public void close() {
+        for (TimeSeries source : sources) {
+            source.removeListener(listener);
+        }
+    }
+
+    private void update(long startTime, long endTime) {
+        int from = result.firstEndingAfter(startTime);
+        int to = result.firstStartingAtOrAfter(endTime);
+        // Angrenzende Zeitscheiben einbeziehen; sie bleiben unverändert, werden aber ggf. mit dem neuen Rand verbunden
+        if (from > 0) {
+            from--;
+        }
+        if (to < result.size()) {
+            to++;
+        }
+        long windowStart = startTime;
+        long windowEnd = endTime;
+        if (from < to) {
+            windowStart = Math.min(windowStart, result.startTimeAt(from));
+            windowEnd = Math.max(windowEnd, result.endTimeAt(to - 1));
+        }
+
+        var window = new TimeSeries(result.getStartDate(), result.getEndDate());
+        var sink = new JoiningSink(window);
+        MultiSeriesSweep.sweep(sources, weights, windowStart, windowEnd, sink);
+        sink.flush();
+        result.replace(from, to, window);
+    }
+}
@@ -0,0 +1,223 @@
+package com.matthiast.timeseries;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Liest eine mit {@link TimeSeriesFile} geschriebene Zeitreihe direkt aus dem speichergemappten
+ * Dateiinhalt, ohne Zeitscheiben auf dem Heap anzulegen. Jede Spalte wird separat gemappt und
+ * darf daher höchstens 2 GB groß sein.
+ */
+public final class MappedTimeSeries {
+
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final int size;
+    private final LongBuffer startTimes;
+    private final LongBuffer endTimes;
+    private final DoubleBuffer values;
+
+    private MappedTimeSeries(LocalDateTime startDate, LocalDateTime endDate, int size, LongBuffer startTimes, LongBuffer endTimes, DoubleBuffer values) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.size = size;
+        this.startTimes = startTimes;
+        this.endTimes = endTimes;
+        this.values = values;
+    }
+
+    static MappedTimeSeries open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < TimeSeriesFile.HEADER_SIZE) {
+                throw new IOException("Keine Zeitreihen-Datei: " + path);
+            }
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TimeSeriesFile.HEADER_SIZE).order(TimeSeriesFile.BYTE_ORDER);
+            if (header.getInt() != TimeSeriesFile.MAGIC) {
+                throw new IOException("Keine Zeitreihen-Datei: " + path);
+            }
+            int version = header.getInt();
+            if (version != TimeSeriesFile.VERSION) {
+                throw new IOException("Nicht unterstützte Version " + version + " der Zeitreihen-Datei: " + path);
+            }
+            var startDate = EpochTime.toLocalDateTime(header.getLong());
+            var endDate = EpochTime.toLocalDateTime(header.getLong());
+            long count = header.getLong();
+            long columnSize = count * Long.BYTES;
+            if (count < 0 || columnSize > Integer.MAX_VALUE) {
+                throw new IOException("Zu viele Zeitscheiben in Zeitreihen-Datei: " + path);
+            }
+            if (channel.size() < TimeSeriesFile.HEADER_SIZE + 3 * columnSize) {
+                throw new IOException("Zeitreihen-Datei ist unvollständig: " + path);
+            }
+
+            long offset = TimeSeriesFile.HEADER_SIZE;
+            var startTimes = channel.map(FileChannel.MapMode.READ_ONLY, offset, columnSize).order(TimeSeriesFile.BYTE_ORDER).asLongBuffer();
+            var endTimes = channel.map(FileChannel.MapMode.READ_ONLY, offset + columnSize, columnSize).order(TimeSeriesFile.BYTE_ORDER).asLongBuffer();
+            var values = channel.map(FileChannel.MapMode.READ_ONLY, offset + 2 * columnSize, columnSize).order(TimeSeriesFile.BYTE_ORDER).asDoubleBuffer();
+            return new MappedTimeSeries(startDate, endDate, (int) count, startTimes, endTimes, values);
+        }
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getValueAtTime(LocalDateTime time) {
+        long millis = EpochTime.toEpochMillis(time);
+        int index = firstStartingAtOrAfter(millis) - 1;
+        if (index >= 0 && millis > startTimes.get(index) && millis < endTimes.get(index)) {
+            return values.get(index);
+        }
+        return Double.NaN;
+    }
+
+    public double getMinValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double minValue = Double.POSITIVE_INFINITY;
+
+        int to = firstStartingAtOrAfter(EpochTime.toEpochMillis(endTime));
+        for (int i = firstEndingAfter(EpochTime.toEpochMillis(startTime)); i < to; i++) {
+            double value = values.get(i);
+            if (value < minValue) {
+                minValue = value;
+            }
+        }
+
+        if (minValue == Double.POSITIVE_INFINITY) {
+            return Double.NaN;
+        }
+
+        return minValue;
+    }
+
+    public double getMaxValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double maxValue = Double.NEGATIVE_INFINITY;
+
+        int to = firstStartingAtOrAfter(EpochTime.toEpochMillis(endTime));
+        for (int i = firstEndingAfter(EpochTime.toEpochMillis(startTime)); i < to; i++) {
+            double value = values.get(i);
+            if (value > maxValue) {
+                maxValue = value;
+            }
+        }
+
+        if (maxValue == Double.NEGATIVE_INFINITY) {
+            return Double.NaN;
+        }
+
+        return maxValue;
+    }
+
+    public double getAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        int from = firstEndingAfter(EpochTime.toEpochMillis(startTime));
+        int to = firstStartingAtOrAfter(EpochTime.toEpochMillis(endTime));
+
+        if (from >= to) {
+            return Double.NaN;
+        }
+
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += values.get(i);
+        }
+
+        return sum / (to - from);
+    }
+
+    public double getTimeWeightedAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        long start = EpochTime.toEpochMillis(startTime);
+        long end = EpochTime.toEpochMillis(endTime);
+        int to = firstStartingAtOrAfter(end);
+
+        double weightedSum = 0.0;
+        long duration = 0;
+        for (int i = firstEndingAfter(start); i < to; i++) {
+            long overlap = Math.min(endTimes.get(i), end) - Math.max(startTimes.get(i), start);
+            weightedSum += values.get(i) * overlap;
+            duration += overlap;
+        }
+
+        if (duration <= 0) {
+            return Double.NaN;
+        }
+
+        return weightedSum / duration;
+    }
+
+    public SliceCursor cursor() {
+        return new SliceCursor() {
+            private int index = -1;
+
+            @Override
+            public boolean next() {
+                return ++index < size;
+            }
+
+            @Override
+            public long startTime() {
+                return startTimes.get(index);
+            }
+
+            @Override
+            public long endTime() {
+                return endTimes.get(index);
+            }
+
+            @Override
+            public double value() {
+                return values.get(index);
+            }
+        };
+    }
+
+    // Lädt die Zeitscheiben als unveränderliche Zeitreihe auf den Heap, z. B. für TimeSeriesAdder
+    public TimeSeries toTimeSeries() {
+        var builder = TimeSeries.builder(startDate, endDate).expectedSize(size);
+        for (int i = 0; i < size; i++) {
+            builder.addTimeSlice(startTimes.get(i), endTimes.get(i), values.get(i));
+        }
+        return builder.build();
+    }
+
+    // Index der ersten Zeitscheibe, deren Endzeit nach time liegt
+    private int firstEndingAfter(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (endTimes.get(mid) > time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // Index der ersten Zeitscheibe, deren Startzeit nicht vor time liegt
+    private int firstStartingAtOrAfter(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startTimes.get(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
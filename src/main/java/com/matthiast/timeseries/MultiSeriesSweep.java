@@ -0,0 +1,188 @@
+package com.matthiast.timeseries;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Bildet die gewichtete Summe beliebig vieler Zeitreihen in einem Durchlauf über alle Zeitscheiben-Grenzen.
+ * Die nächste Grenze liefert ein Min-Heap über die Zeitreihen, die Summe der gerade aktiven Werte ein
+ * Segmentbaum; beides kostet O(log k) je Grenze, Zwischenergebnisse zweier Zeitreihen entstehen nicht.
+ * Lange Zeiträume werden in Abschnitte zerlegt, die parallel berechnet und danach zusammengefügt werden.
+ */
+final class MultiSeriesSweep {
+
+    private static final int MIN_SLICES_PER_CHUNK = 1 << 16;
+
+    private MultiSeriesSweep() {
+    }
+
+    static TimeSeries sum(List<TimeSeries> series, double[] weights) {
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("Es muss mindestens eine Zeitreihe angegeben werden");
+        }
+        LocalDateTime combinedStart = series.get(0).getStartDate();
+        LocalDateTime combinedEnd = series.get(0).getEndDate();
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        long totalSlices = 0;
+        for (TimeSeries timeSeries : series) {
+            combinedStart = timeSeries.getStartDate().isBefore(combinedStart) ? timeSeries.getStartDate() : combinedStart;
+            combinedEnd = timeSeries.getEndDate().isAfter(combinedEnd) ? timeSeries.getEndDate() : combinedEnd;
+            int size = timeSeries.size();
+            if (size > 0) {
+                from = Math.min(from, timeSeries.startTimeAt(0));
+                to = Math.max(to, timeSeries.endTimeAt(size - 1));
+                totalSlices += size;
+            }
+        }
+
+        var result = new TimeSeries(combinedStart, combinedEnd);
+        if (totalSlices == 0) {
+            return result;
+        }
+
+        var sink = new JoiningSink(result);
+        int chunks = (int) Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, totalSlices / MIN_SLICES_PER_CHUNK);
+        if (chunks <= 1 || to - from < chunks) {
+            sweep(series, weights, from, to, sink);
+        } else {
+            long rangeStart = from;
+            long range = to - from;
+            var chunkResults = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> {
+                        var chunkResult = new TimeSeries(result.getStartDate(), result.getEndDate());
+                        var chunkSink = new JoiningSink(chunkResult);
+                        sweep(series, weights, rangeStart + range * chunk / chunks, rangeStart + range * (chunk + 1) / chunks, chunkSink);
+                        chunkSink.flush();
+                        return chunkResult;
+                    })
+                    .toList();
+            // Am Abschnittsrand zerschnittene Zeitscheiben werden beim Zusammenfügen wieder verbunden
+            for (TimeSeries chunkResult : chunkResults) {
+                for (int i = 0; i < chunkResult.size(); i++) {
+                    sink.accept(chunkResult.startTimeAt(i), chunkResult.endTimeAt(i), chunkResult.valueAt(i));
+                }
+            }
+        }
+        sink.flush();
+
+        return result;
+    }
+
+    // Summiert alle Zeitscheiben im Zeitraum [from, to); Zeitscheiben über den Rändern werden gekürzt
+    static void sweep(List<TimeSeries> series, double[] weights, long from, long to, JoiningSink sink) {
+        int count = series.size();
+        var positions = new int[count];
+        var active = new boolean[count];
+        var eventTimes = new long[count];
+        var heap = new EventHeap(eventTimes);
+        var sums = new double[2 * count];
+        int activeCount = 0;
+
+        for (int s = 0; s < count; s++) {
+            TimeSeries timeSeries = series.get(s);
+            int position = timeSeries.firstEndingAfter(from);
+            positions[s] = position;
+            if (position < timeSeries.size() && timeSeries.startTimeAt(position) < to) {
+                eventTimes[s] = Math.max(timeSeries.startTimeAt(position), from);
+                heap.push(s);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            long time = eventTimes[heap.peek()];
+            while (!heap.isEmpty() && eventTimes[heap.peek()] == time) {
+                int s = heap.pop();
+                TimeSeries timeSeries = series.get(s);
+                if (active[s]) {
+                    active[s] = false;
+                    activeCount--;
+                    update(sums, count, s, 0.0);
+                    int position = ++positions[s];
+                    if (position < timeSeries.size() && timeSeries.startTimeAt(position) < to) {
+                        eventTimes[s] = Math.max(timeSeries.startTimeAt(position), from);
+                        heap.push(s);
+                    }
+                } else {
+                    active[s] = true;
+                    activeCount++;
+                    update(sums, count, s, weights[s] * timeSeries.valueAt(positions[s]));
+                    eventTimes[s] = Math.min(timeSeries.endTimeAt(positions[s]), to);
+                    heap.push(s);
+                }
+            }
+            if (activeCount > 0) {
+                // Aktive Zeitreihen haben immer noch ein offenes Ende im Heap
+                long next = eventTimes[heap.peek()];
+                sink.accept(time, next, sums[1]);
+            }
+        }
+    }
+
+    // Die Summe hängt nur von der Menge der aktiven Werte ab, nicht von der Reihenfolge der Änderungen
+    private static void update(double[] sums, int count, int s, double value) {
+        int node = s + count;
+        sums[node] = value;
+        for (; node > 1; node >>= 1) {
+            sums[node >> 1] = sums[node] + sums[node ^ 1];
+        }
+    }
+
+    // Min-Heap über Zeitreihen-Indizes, sortiert nach ihrem nächsten Ereigniszeitpunkt
+    private static final class EventHeap {
+        private final long[] eventTimes;
+        private final int[] heap;
+        private int size;
+
+        private EventHeap(long[] eventTimes) {
+            this.eventTimes = eventTimes;
+            this.heap = new int[eventTimes.length];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int peek() {
+            return heap[0];
+        }
+
+        private void push(int s) {
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (eventTimes[heap[parent]] <= eventTimes[s]) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = s;
+        }
+
+        private int pop() {
+            int top = heap[0];
+            int last = heap[--size];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && eventTimes[heap[child + 1]] < eventTimes[heap[child]]) {
+                    child++;
+                }
+                if (eventTimes[last] <= eventTimes[heap[child]]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = last;
+            return top;
+        }
+    }
+}
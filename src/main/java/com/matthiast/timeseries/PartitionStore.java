@@ -0,0 +1,15 @@
+package com.matthiast.timeseries;
+
+import java.io.IOException;
+import java.util.SortedMap;
+
+// Ablage für die Partitionen einer PartitionedTimeSeries, aus der sie bei Bedarf nachgeladen werden
+public interface PartitionStore {
+
+    // Zusammenfassungen aller abgelegten Partitionen, ohne deren Zeitscheiben zu lesen
+    SortedMap<Long, PartitionSummary> summaries() throws IOException;
+
+    void save(long partition, TimeSeries timeSeries, PartitionSummary summary) throws IOException;
+
+    TimeSeries load(long partition) throws IOException;
+}
@@ -0,0 +1,6 @@
+package com.matthiast.timeseries;
+
+// Zusammenfassung einer Partition, die ein PartitionStore neben den Zeitscheiben ablegt; Zeiten in Epoch-Millisekunden
+public record PartitionSummary(int count, double min, double max, double sum,
+                               long firstStart, long firstEnd, long lastStart, long lastEnd, double lastValue) {
+}
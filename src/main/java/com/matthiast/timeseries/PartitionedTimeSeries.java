@@ -0,0 +1,391 @@
+package com.matthiast.timeseries;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Zeitreihe, die in Partitionen fester Kalenderlänge (z. B. Monate) aufgeteilt ist. Eine Zeitscheibe
+ * gehört zur Partition ihrer Startzeit. Jede Partition führt eine Zusammenfassung (Minimum, Maximum,
+ * Summe, Anzahl sowie erste und letzte Zeitscheibe), die immer im Speicher bleibt. Bereichsabfragen
+ * beantworten vollständig abgedeckte Partitionen aus den Zusammenfassungen und durchsuchen nur die
+ * Randpartitionen. Mit einem {@link PartitionStore} werden Partitionen erst bei Bedarf geladen und
+ * über die Grenze {@code maxLoadedPartitions} hinaus wieder verdrängt. Der Store legt die
+ * Zusammenfassungen mit ab, sodass {@link #open} keine Zeitscheiben liest.
+ */
+public final class PartitionedTimeSeries {
+
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final long startMillis;
+    private final long endMillis;
+    private final ChronoUnit partitionUnit;
+    private final PartitionStore store;
+    private final int maxLoadedPartitions;
+    private final NavigableMap<Long, Partition> partitions = new TreeMap<>();
+    // Geladene Partitionen in Zugriffsreihenfolge; die älteste wird zuerst verdrängt
+    private final LinkedHashMap<Long, Partition> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+    public PartitionedTimeSeries(LocalDateTime startDate, LocalDateTime endDate, ChronoUnit partitionUnit) {
+        this(startDate, endDate, partitionUnit, null, Integer.MAX_VALUE);
+    }
+
+    public PartitionedTimeSeries(LocalDateTime startDate, LocalDateTime endDate, ChronoUnit partitionUnit, PartitionStore store, int maxLoadedPartitions) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Startdatum muss vor Enddatum liegen");
+        }
+        if (!partitionUnit.isDateBased()) {
+            throw new IllegalArgumentException("Die Partitionen müssen nach Tagen, Wochen, Monaten oder Jahren geschnitten sein");
+        }
+        if (maxLoadedPartitions < 1) {
+            throw new IllegalArgumentException("Es muss mindestens eine Partition geladen bleiben dürfen");
+        }
+        // Ohne Store gingen die Daten verdrängter Partitionen verloren
+        if (store == null && maxLoadedPartitions != Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ohne PartitionStore können keine Partitionen verdrängt werden");
+        }
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startMillis = EpochTime.toEpochMillis(startDate);
+        this.endMillis = EpochTime.toEpochMillis(endDate);
+        this.partitionUnit = partitionUnit;
+        this.store = store;
+        this.maxLoadedPartitions = maxLoadedPartitions;
+    }
+
+    // Öffnet bereits abgelegte Partitionen; gelesen werden nur ihre Zusammenfassungen, die Daten erst bei Bedarf
+    public static PartitionedTimeSeries open(LocalDateTime startDate, LocalDateTime endDate, ChronoUnit partitionUnit, PartitionStore store, int maxLoadedPartitions) {
+        var result = new PartitionedTimeSeries(startDate, endDate, partitionUnit, store, maxLoadedPartitions);
+        try {
+            for (var summary : store.summaries().entrySet()) {
+                var partition = result.newPartition(summary.getKey());
+                partition.restore(summary.getValue());
+                result.partitions.put(summary.getKey(), partition);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Partition partition : partitions.values()) {
+            size += partition.count;
+        }
+        return size;
+    }
+
+    public int getLoadedPartitionCount() {
+        return loaded.size();
+    }
+
+    public void addTimeSlice(TimeSlice timeSlice) {
+        long start = EpochTime.toEpochMillis(timeSlice.startTime());
+        long end = EpochTime.toEpochMillis(timeSlice.endTime());
+        if (start > end) {
+            throw new IllegalArgumentException("Die Startzeit der Zeitscheibe muss vor ihrer Endzeit liegen");
+        }
+        if (!TimeSeries.isValidTimeFrame(startMillis, endMillis, start, end)) {
+            throw new IllegalArgumentException("Die Zeitscheibe liegt außerhalb des gültigen Zeitraums.");
+        }
+        long key = partitionKey(start);
+        // Über Partitionsgrenzen hinweg genügen die Zusammenfassungen der Nachbarn
+        var previous = lastNonEmptyBefore(key);
+        var following = firstNonEmptyAfter(key);
+        if (previous != null && previous.lastEnd > start || following != null && following.firstStart < end) {
+            throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
+        }
+        // Eine neue Partition wird erst übernommen, wenn die Zeitscheibe angenommen wurde
+        var partition = partitions.get(key);
+        if (partition == null) {
+            var data = new TimeSeries(startDate, endDate);
+            data.addTimeSlice(timeSlice);
+            partition = newPartition(key);
+            partition.data = data;
+            partitions.put(key, partition);
+            data(partition);
+        } else {
+            data(partition).addTimeSlice(timeSlice);
+        }
+        partition.add(start, end, timeSlice.value());
+        partition.dirty = true;
+    }
+
+    public double getValueAtTime(LocalDateTime time) {
+        long millis = EpochTime.toEpochMillis(time);
+        long key = partitionKey(millis);
+        var partition = partitions.get(key);
+        if (partition != null && partition.count > 0 && partition.firstStart < millis) {
+            return data(partition).getValueAtTime(millis);
+        }
+        var previous = lastNonEmptyBefore(key);
+        if (previous != null && millis > previous.lastStart && millis < previous.lastEnd) {
+            return previous.lastValue;
+        }
+        return Double.NaN;
+    }
+
+    public double getMinValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double minValue = collect(startTime, endTime).min;
+        return minValue == Double.POSITIVE_INFINITY ? Double.NaN : minValue;
+    }
+
+    public double getMaxValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double maxValue = collect(startTime, endTime).max;
+        return maxValue == Double.NEGATIVE_INFINITY ? Double.NaN : maxValue;
+    }
+
+    public double getAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        var stats = collect(startTime, endTime);
+        return stats.count == 0 ? Double.NaN : stats.sum / stats.count;
+    }
+
+    // Schreibt geänderte Partitionen in den Store und gibt ihre Daten frei
+    public void evictAll() {
+        if (store == null) {
+            return;
+        }
+        for (var iterator = loaded.values().iterator(); iterator.hasNext(); ) {
+            unload(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    // Schreibt geänderte Partitionen in den Store, behält sie aber geladen
+    public void flush() {
+        for (Partition partition : loaded.values()) {
+            save(partition);
+        }
+    }
+
+    // Unveränderliche Kopie aller Zeitscheiben; lädt dafür jede Partition einmal
+    public TimeSeries toTimeSeries() {
+        var builder = TimeSeries.builder(startDate, endDate).expectedSize(size());
+        for (Partition partition : partitions.values()) {
+            if (partition.count == 0) {
+                continue;
+            }
+            var data = data(partition);
+            for (int i = 0; i < data.size(); i++) {
+                builder.addTimeSlice(data.startTimeAt(i), data.endTimeAt(i), data.valueAt(i));
+            }
+        }
+        return builder.build();
+    }
+
+    // Die Grenzen stammen wie in newPartition aus startDate.plus(key); between ist nur die Schätzung, denn bei
+    // Monatsenden weicht es davon ab (31.01. plus 1 Monat ist der 28.02., between zählt dort noch 0)
+    private long partitionKey(long time) {
+        var date = EpochTime.toLocalDateTime(time);
+        long key = partitionUnit.between(startDate, date);
+        while (startDate.plus(key, partitionUnit).isAfter(date)) {
+            key--;
+        }
+        while (!startDate.plus(key + 1, partitionUnit).isAfter(date)) {
+            key++;
+        }
+        return key;
+    }
+
+    private Partition newPartition(long key) {
+        return new Partition(key, EpochTime.toEpochMillis(startDate.plus(key, partitionUnit)),
+                EpochTime.toEpochMillis(startDate.plus(key + 1, partitionUnit)));
+    }
+
+    private Partition lastNonEmptyBefore(long key) {
+        for (Partition partition : partitions.headMap(key, false).descendingMap().values()) {
+            if (partition.count > 0) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    private Partition firstNonEmptyAfter(long key) {
+        for (Partition partition : partitions.tailMap(key, false).values()) {
+            if (partition.count > 0) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    private RangeStats collect(LocalDateTime startTime, LocalDateTime endTime) {
+        long start = EpochTime.toEpochMillis(startTime);
+        long end = EpochTime.toEpochMillis(endTime);
+        var stats = new RangeStats();
+        long firstKey = partitionKey(start);
+        long lastKey = Math.max(firstKey, partitionKey(end));
+
+        // Aus früheren Partitionen kann nur deren letzte Zeitscheibe hineinragen
+        var previous = lastNonEmptyBefore(firstKey);
+        if (previous != null && previous.lastEnd > start && previous.lastStart < end) {
+            stats.add(previous.lastValue);
+        }
+        for (Partition partition : partitions.subMap(firstKey, true, lastKey, true).values()) {
+            if (partition.count == 0) {
+                continue;
+            }
+            if (partition.isCoveredBy(start, end)) {
+                stats.add(partition);
+                continue;
+            }
+            var data = data(partition);
+            for (int i = data.firstEndingAfter(start); i < data.size() && data.startTimeAt(i) < end; i++) {
+                stats.add(data.valueAt(i));
+            }
+        }
+        return stats;
+    }
+
+    private TimeSeries data(Partition partition) {
+        if (partition.data == null) {
+            partition.data = load(partition);
+        }
+        loaded.put(partition.key, partition);
+        if (loaded.size() > maxLoadedPartitions) {
+            var eldest = loaded.entrySet().iterator().next();
+            unload(eldest.getValue());
+            loaded.remove(eldest.getKey());
+        }
+        return partition.data;
+    }
+
+    private TimeSeries load(Partition partition) {
+        var data = new TimeSeries(startDate, endDate);
+        if (store == null || !partition.stored) {
+            return data;
+        }
+        try {
+            var stored = store.load(partition.key);
+            for (int i = 0; i < stored.size(); i++) {
+                data.append(stored.startTimeAt(i), stored.endTimeAt(i), stored.valueAt(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return data;
+    }
+
+    private void unload(Partition partition) {
+        save(partition);
+        partition.data = null;
+    }
+
+    private void save(Partition partition) {
+        if (store == null || !partition.dirty) {
+            return;
+        }
+        try {
+            store.save(partition.key, partition.data, partition.summary());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        partition.dirty = false;
+        partition.stored = true;
+    }
+
+    private static final class Partition {
+        private final long key;
+        private final long startMillis;
+        private final long endMillis;
+        private TimeSeries data;
+        private boolean dirty;
+        private boolean stored;
+        private int count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private long firstStart;
+        private long firstEnd;
+        private long lastStart;
+        private long lastEnd;
+        private double lastValue;
+
+        private Partition(long key, long startMillis, long endMillis) {
+            this.key = key;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        private void restore(PartitionSummary summary) {
+            stored = true;
+            count = summary.count();
+            min = summary.min();
+            max = summary.max();
+            sum = summary.sum();
+            firstStart = summary.firstStart();
+            firstEnd = summary.firstEnd();
+            lastStart = summary.lastStart();
+            lastEnd = summary.lastEnd();
+            lastValue = summary.lastValue();
+        }
+
+        private PartitionSummary summary() {
+            return new PartitionSummary(count, min, max, sum, firstStart, firstEnd, lastStart, lastEnd, lastValue);
+        }
+
+        private void add(long start, long end, double value) {
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+            sum += value;
+            if (count == 0 || start < firstStart || start == firstStart && end < firstEnd) {
+                firstStart = start;
+                firstEnd = end;
+            }
+            if (count == 0 || start > lastStart || start == lastStart && end >= lastEnd) {
+                lastStart = start;
+                lastEnd = end;
+                lastValue = value;
+            }
+            count++;
+        }
+
+        // Alle Zeitscheiben der Partition überlappen den Bereich; nur eine leere Zeitscheibe genau auf start nicht
+        private boolean isCoveredBy(long start, long end) {
+            return startMillis >= start && endMillis <= end && !(firstStart == start && firstEnd == start);
+        }
+    }
+
+    private static final class RangeStats {
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private int count;
+
+        private void add(double value) {
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+            sum += value;
+            count++;
+        }
+
+        private void add(Partition partition) {
+            min = Math.min(min, partition.min);
+            max = Math.max(max, partition.max);
+            sum += partition.sum;
+            count += partition.count;
+        }
+    }
+}
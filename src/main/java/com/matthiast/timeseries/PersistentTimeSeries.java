@@ -0,0 +1,492 @@
+package com.matthiast.timeseries;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Unveränderliche Zeitreihe mit struktureller Teilung. Die Zeitscheiben liegen in Blättern zu höchstens
+ * {@value #LEAF_SIZE} Einträgen unter einem Baum mit bis zu {@value #FANOUT} Kindern je Knoten.
+ * {@link #addTimeSlice} und {@link #removeTimeSlice} liefern eine neue Version, die nur die Knoten auf
+ * dem Pfad zur Änderung neu anlegt und alle übrigen mit der alten Version teilt. Jeder Knoten führt
+ * Minimum, Maximum und Summe seiner Zeitscheiben, sodass Bereichsabfragen nur die Ränder durchlaufen.
+ * Versionen können ohne Kopie zwischen Threads weitergegeben und aufbewahrt werden.
+ */
+public final class PersistentTimeSeries {
+
+    static final int LEAF_SIZE = 64;
+    static final int FANOUT = 32;
+
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final long startMillis;
+    private final long endMillis;
+    private final Node root;
+
+    private PersistentTimeSeries(LocalDateTime startDate, LocalDateTime endDate, long startMillis, long endMillis, Node root) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.root = root;
+    }
+
+    public static PersistentTimeSeries empty(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Startdatum muss vor Enddatum liegen");
+        }
+        return new PersistentTimeSeries(startDate, endDate, EpochTime.toEpochMillis(startDate), EpochTime.toEpochMillis(endDate), null);
+    }
+
+    // Baut den Baum in einem Durchlauf von unten auf
+    public static PersistentTimeSeries of(TimeSeries timeSeries) {
+        var empty = empty(timeSeries.getStartDate(), timeSeries.getEndDate());
+        int size = timeSeries.size();
+        if (size == 0) {
+            return empty;
+        }
+        var level = new Node[(size + LEAF_SIZE - 1) / LEAF_SIZE];
+        for (int leaf = 0; leaf < level.length; leaf++) {
+            int from = leaf * LEAF_SIZE;
+            int count = Math.min(LEAF_SIZE, size - from);
+            var startTimes = new long[count];
+            var endTimes = new long[count];
+            var values = new double[count];
+            for (int i = 0; i < count; i++) {
+                startTimes[i] = timeSeries.startTimeAt(from + i);
+                endTimes[i] = timeSeries.endTimeAt(from + i);
+                values[i] = timeSeries.valueAt(from + i);
+            }
+            level[leaf] = Node.leaf(startTimes, endTimes, values);
+        }
+        while (level.length > 1) {
+            var parents = new Node[(level.length + FANOUT - 1) / FANOUT];
+            for (int parent = 0; parent < parents.length; parent++) {
+                int from = parent * FANOUT;
+                parents[parent] = Node.inner(Arrays.copyOfRange(level, from, Math.min(level.length, from + FANOUT)));
+            }
+            level = parents;
+        }
+        return new PersistentTimeSeries(empty.startDate, empty.endDate, empty.startMillis, empty.endMillis, level[0]);
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    public PersistentTimeSeries addTimeSlice(TimeSlice timeSlice) {
+        long start = EpochTime.toEpochMillis(timeSlice.startTime());
+        long end = EpochTime.toEpochMillis(timeSlice.endTime());
+        if (start > end) {
+            throw new IllegalArgumentException("Die Startzeit der Zeitscheibe muss vor ihrer Endzeit liegen");
+        }
+        if (!TimeSeries.isValidTimeFrame(startMillis, endMillis, start, end)) {
+            throw new IllegalArgumentException("Die Zeitscheibe liegt außerhalb des gültigen Zeitraums.");
+        }
+        // Alle Zeitscheiben davor enden spätestens bei start, also wird genau hier eingefügt
+        int index = firstEndingAfter(start);
+        if (index < size() && startTimeAt(index) < end) {
+            throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
+        }
+        if (root == null) {
+            return withRoot(Node.leaf(new long[]{start}, new long[]{end}, new double[]{timeSlice.value()}));
+        }
+        var nodes = insert(root, index, start, end, timeSlice.value());
+        return withRoot(nodes.length == 1 ? nodes[0] : Node.inner(nodes));
+    }
+
+    public PersistentTimeSeries removeTimeSlice(LocalDateTime startTime, LocalDateTime endTime) {
+        int from = firstEndingAfter(EpochTime.toEpochMillis(startTime));
+        int to = firstStartingAtOrAfter(EpochTime.toEpochMillis(endTime));
+        if (from >= to) {
+            return this;
+        }
+        var newRoot = removeRange(root, from, to);
+        // Ein einzelnes Kind ersetzt die Wurzel, damit der Baum nach dem Löschen nicht unnötig tief bleibt
+        while (newRoot != null && newRoot.children != null && newRoot.children.length == 1) {
+            newRoot = newRoot.children[0];
+        }
+        return withRoot(newRoot);
+    }
+
+    public double getValueAtTime(LocalDateTime time) {
+        long millis = EpochTime.toEpochMillis(time);
+        int index = firstStartingAtOrAfter(millis) - 1;
+        if (index < 0) {
+            return Double.NaN;
+        }
+        var leaf = root;
+        int position = index;
+        while (leaf.children != null) {
+            for (Node child : leaf.children) {
+                if (position < child.size) {
+                    leaf = child;
+                    break;
+                }
+                position -= child.size;
+            }
+        }
+        return millis > leaf.startTimes[position] && millis < leaf.endTimes[position] ? leaf.values[position] : Double.NaN;
+    }
+
+    public double getMinValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double minValue = collect(startTime, endTime).min;
+        return minValue == Double.POSITIVE_INFINITY ? Double.NaN : minValue;
+    }
+
+    public double getMaxValue(LocalDateTime startTime, LocalDateTime endTime) {
+        double maxValue = collect(startTime, endTime).max;
+        return maxValue == Double.NEGATIVE_INFINITY ? Double.NaN : maxValue;
+    }
+
+    public double getAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        var stats = collect(startTime, endTime);
+        return stats.count == 0 ? Double.NaN : stats.sum / stats.count;
+    }
+
+    public SliceCursor cursor() {
+        return new LeafCursor(root);
+    }
+
+    public TimeSeries toTimeSeries() {
+        var builder = TimeSeries.builder(startDate, endDate).expectedSize(size());
+        var cursor = cursor();
+        while (cursor.next()) {
+            builder.addTimeSlice(cursor.startTime(), cursor.endTime(), cursor.value());
+        }
+        return builder.build();
+    }
+
+    private PersistentTimeSeries withRoot(Node newRoot) {
+        return new PersistentTimeSeries(startDate, endDate, startMillis, endMillis, newRoot);
+    }
+
+    private RangeStats collect(LocalDateTime startTime, LocalDateTime endTime) {
+        var stats = new RangeStats();
+        int from = firstEndingAfter(EpochTime.toEpochMillis(startTime));
+        int to = firstStartingAtOrAfter(EpochTime.toEpochMillis(endTime));
+        if (from < to) {
+            stats.add(root, from, to);
+        }
+        return stats;
+    }
+
+    // Index der ersten Zeitscheibe, deren Endzeit nach time liegt
+    private int firstEndingAfter(long time) {
+        int index = 0;
+        var node = root;
+        while (node != null && node.children != null) {
+            var next = (Node) null;
+            for (Node child : node.children) {
+                if (child.lastEnd > time) {
+                    next = child;
+                    break;
+                }
+                index += child.size;
+            }
+            node = next;
+        }
+        if (node != null) {
+            int low = 0;
+            int high = node.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (node.endTimes[mid] > time) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            index += low;
+        }
+        return index;
+    }
+
+    // Index der ersten Zeitscheibe, deren Startzeit nicht vor time liegt
+    private int firstStartingAtOrAfter(long time) {
+        int index = 0;
+        var node = root;
+        while (node != null && node.children != null) {
+            var next = (Node) null;
+            for (Node child : node.children) {
+                if (child.lastStart >= time) {
+                    next = child;
+                    break;
+                }
+                index += child.size;
+            }
+            node = next;
+        }
+        if (node != null) {
+            int low = 0;
+            int high = node.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (node.startTimes[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            index += low;
+        }
+        return index;
+    }
+
+    private long startTimeAt(int index) {
+        var node = root;
+        int position = index;
+        while (node.children != null) {
+            for (Node child : node.children) {
+                if (position < child.size) {
+                    node = child;
+                    break;
+                }
+                position -= child.size;
+            }
+        }
+        return node.startTimes[position];
+    }
+
+    // Liefert den neuen Knoten oder nach einer Teilung zwei Knoten
+    private static Node[] insert(Node node, int index, long start, long end, double value) {
+        if (node.children == null) {
+            int size = node.size;
+            var startTimes = insertAt(node.startTimes, index, start);
+            var endTimes = insertAt(node.endTimes, index, end);
+            var values = new double[size + 1];
+            System.arraycopy(node.values, 0, values, 0, index);
+            values[index] = value;
+            System.arraycopy(node.values, index, values, index + 1, size - index);
+            if (size + 1 <= LEAF_SIZE) {
+                return new Node[]{Node.leaf(startTimes, endTimes, values)};
+            }
+            int half = (size + 1) / 2;
+            return new Node[]{
+                    Node.leaf(Arrays.copyOfRange(startTimes, 0, half), Arrays.copyOfRange(endTimes, 0, half), Arrays.copyOfRange(values, 0, half)),
+                    Node.leaf(Arrays.copyOfRange(startTimes, half, size + 1), Arrays.copyOfRange(endTimes, half, size + 1), Arrays.copyOfRange(values, half, size + 1))
+            };
+        }
+
+        Node[] children = node.children;
+        int child = 0;
+        int position = index;
+        // Am Ende eines Kindes wird in dieses Kind eingefügt, nicht in das nächste
+        while (child < children.length - 1 && position > children[child].size) {
+            position -= children[child].size;
+            child++;
+        }
+        var replacement = insert(children[child], position, start, end, value);
+        var newChildren = new Node[children.length + replacement.length - 1];
+        System.arraycopy(children, 0, newChildren, 0, child);
+        System.arraycopy(replacement, 0, newChildren, child, replacement.length);
+        System.arraycopy(children, child + 1, newChildren, child + replacement.length, children.length - child - 1);
+        if (newChildren.length <= FANOUT) {
+            return new Node[]{Node.inner(newChildren)};
+        }
+        int half = newChildren.length / 2;
+        return new Node[]{Node.inner(Arrays.copyOfRange(newChildren, 0, half)), Node.inner(Arrays.copyOfRange(newChildren, half, newChildren.length))};
+    }
+
+    // Entfernt die Zeitscheiben [from, to) des Knotens; leere Knoten entfallen
+    private static Node removeRange(Node node, int from, int to) {
+        if (from <= 0 && to >= node.size) {
+            return null;
+        }
+        if (node.children == null) {
+            int removed = to - from;
+            int size = node.size - removed;
+            var startTimes = new long[size];
+            var endTimes = new long[size];
+            var values = new double[size];
+            System.arraycopy(node.startTimes, 0, startTimes, 0, from);
+            System.arraycopy(node.endTimes, 0, endTimes, 0, from);
+            System.arraycopy(node.values, 0, values, 0, from);
+            System.arraycopy(node.startTimes, to, startTimes, from, node.size - to);
+            System.arraycopy(node.endTimes, to, endTimes, from, node.size - to);
+            System.arraycopy(node.values, to, values, from, node.size - to);
+            return Node.leaf(startTimes, endTimes, values);
+        }
+
+        var newChildren = new Node[node.children.length];
+        int count = 0;
+        int offset = 0;
+        for (Node child : node.children) {
+            int childFrom = Math.max(from - offset, 0);
+            int childTo = Math.min(to - offset, child.size);
+            // Unberührte Kinder werden unverändert geteilt
+            var newChild = childFrom < childTo ? removeRange(child, childFrom, childTo) : child;
+            if (newChild != null) {
+                newChildren[count++] = newChild;
+            }
+            offset += child.size;
+        }
+        return count == 0 ? null : Node.inner(Arrays.copyOf(newChildren, count));
+    }
+
+    private static long[] insertAt(long[] array, int index, long value) {
+        var result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static final class Node {
+        // Nur in Blättern belegt
+        private final long[] startTimes;
+        private final long[] endTimes;
+        private final double[] values;
+        // Nur in inneren Knoten belegt
+        private final Node[] children;
+        private final int size;
+        private final long lastStart;
+        private final long lastEnd;
+        private final double min;
+        private final double max;
+        private final double sum;
+
+        private Node(long[] startTimes, long[] endTimes, double[] values, Node[] children, int size, long lastStart, long lastEnd, double min, double max, double sum) {
+            this.startTimes = startTimes;
+            this.endTimes = endTimes;
+            this.values = values;
+            this.children = children;
+            this.size = size;
+            this.lastStart = lastStart;
+            this.lastEnd = lastEnd;
+            this.min = min;
+            this.max = max;
+            this.sum = sum;
+        }
+
+        private static Node leaf(long[] startTimes, long[] endTimes, double[] values) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0.0;
+            for (double value : values) {
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+                sum += value;
+            }
+            int size = values.length;
+            return new Node(startTimes, endTimes, values, null, size, startTimes[size - 1], endTimes[size - 1], min, max, sum);
+        }
+
+        private static Node inner(Node[] children) {
+            int size = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0.0;
+            for (Node child : children) {
+                size += child.size;
+                min = Math.min(min, child.min);
+                max = Math.max(max, child.max);
+                sum += child.sum;
+            }
+            var last = children[children.length - 1];
+            return new Node(null, null, null, children, size, last.lastStart, last.lastEnd, min, max, sum);
+        }
+    }
+
+    private static final class RangeStats {
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private int count;
+
+        // Vollständig abgedeckte Knoten gehen mit ihrer Zusammenfassung ein, nur die Ränder werden durchlaufen
+        private void add(Node node, int from, int to) {
+            if (from <= 0 && to >= node.size) {
+                min = Math.min(min, node.min);
+                max = Math.max(max, node.max);
+                sum += node.sum;
+                count += node.size;
+                return;
+            }
+            if (node.children == null) {
+                for (int i = Math.max(from, 0); i < Math.min(to, node.size); i++) {
+                    double value = node.values[i];
+                    if (value < min) {
+                        min = value;
+                    }
+                    if (value > max) {
+                        max = value;
+                    }
+                    sum += value;
+                    count++;
+                }
+                return;
+            }
+            int offset = 0;
+            for (Node child : node.children) {
+                if (offset >= to) {
+                    break;
+                }
+                if (offset + child.size > from) {
+                    add(child, from - offset, to - offset);
+                }
+                offset += child.size;
+            }
+        }
+    }
+
+    // Durchläuft die Blätter von links nach rechts
+    private static final class LeafCursor implements SliceCursor {
+        private final ArrayDeque<Node> pending = new ArrayDeque<>();
+        private Node leaf;
+        private int index;
+
+        private LeafCursor(Node root) {
+            if (root != null) {
+                pending.push(root);
+            }
+        }
+
+        @Override
+        public boolean next() {
+            if (leaf != null && ++index < leaf.size) {
+                return true;
+            }
+            while (!pending.isEmpty()) {
+                var node = pending.pop();
+                if (node.children == null) {
+                    leaf = node;
+                    index = 0;
+                    return true;
+                }
+                for (int i = node.children.length - 1; i >= 0; i--) {
+                    pending.push(node.children[i]);
+                }
+            }
+            leaf = null;
+            return false;
+        }
+
+        @Override
+        public long startTime() {
+            return leaf.startTimes[index];
+        }
+
+        @Override
+        public long endTime() {
+            return leaf.endTimes[index];
+        }
+
+        @Override
+        public double value() {
+            return leaf.values[index];
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.matthiast.timeseries;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Ergebnis eines Resamplings: ein Wert je Intervall fester Länge ab einem Startzeitpunkt.
+ * Intervalle ohne Daten enthalten {@code NaN}.
+ */
+public final class ResampledSeries {
+
+    private final long startEpochMillis;
+    private final long intervalMillis;
+    private final double[] values;
+
+    ResampledSeries(long startEpochMillis, long intervalMillis, double[] values) {
+        this.startEpochMillis = startEpochMillis;
+        this.intervalMillis = intervalMillis;
+        this.values = values;
+    }
+
+    public LocalDateTime getStartTime() {
+        return EpochTime.toLocalDateTime(startEpochMillis);
+    }
+
+    public Duration getInterval() {
+        return Duration.ofMillis(intervalMillis);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public LocalDateTime getIntervalStart(int index) {
+        return EpochTime.toLocalDateTime(startEpochMillis + index * intervalMillis);
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    // Liefert das interne Array ohne Kopie
+    public double[] getValues() {
+        return values;
+    }
+
+    public TimeSeries toTimeSeries() {
+        var builder = TimeSeries.builder(getStartTime(), getIntervalStart(values.length)).expectedSize(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (!Double.isNaN(values[i])) {
+                long start = startEpochMillis + i * intervalMillis;
+                builder.addTimeSlice(start, start + intervalMillis, values[i]);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.matthiast.timeseries;
+
+// Berechnet Intervall-Aggregate in einem Durchlauf über die sortierten Zeitscheiben
+final class Resampler {
+
+    private Resampler() {
+    }
+
+    static void resample(TimeSeries timeSeries, long startEpochMillis, long intervalMillis, Aggregation aggregation, double[] out) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Das Intervall muss positiv sein");
+        }
+        int size = timeSeries.size();
+        int first = timeSeries.firstEndingAfter(startEpochMillis);
+
+        for (int bucket = 0; bucket < out.length; bucket++) {
+            long bucketStart = startEpochMillis + bucket * intervalMillis;
+            long bucketEnd = bucketStart + intervalMillis;
+            // Zeitscheiben, die vor diesem Intervall enden, werden für kein weiteres Intervall mehr gebraucht
+            while (first < size && timeSeries.endTimeAt(first) <= bucketStart) {
+                first++;
+            }
+
+            double result = aggregation == Aggregation.MIN ? Double.POSITIVE_INFINITY : aggregation == Aggregation.MAX ? Double.NEGATIVE_INFINITY : 0.0;
+            long coveredDuration = 0;
+            boolean found = false;
+            for (int i = first; i < size && timeSeries.startTimeAt(i) < bucketEnd; i++) {
+                double value = timeSeries.valueAt(i);
+                long start = timeSeries.startTimeAt(i);
+                long end = timeSeries.endTimeAt(i);
+                long overlap = Math.min(end, bucketEnd) - Math.max(start, bucketStart);
+                switch (aggregation) {
+                    case MEAN -> {
+                        result += value * overlap;
+                        coveredDuration += overlap;
+                    }
+                    case MIN -> result = value < result ? value : result;
+                    case MAX -> result = value > result ? value : result;
+                    case SUM -> {
+                        if (end > start) {
+                            result += value * overlap / (end - start);
+                            found = true;
+                        }
+                    }
+                    case LAST -> {
+                        result = value;
+                        found = true;
+                    }
+                }
+            }
+
+            out[bucket] = switch (aggregation) {
+                case MEAN -> coveredDuration > 0 ? result / coveredDuration : Double.NaN;
+                case MIN -> result == Double.POSITIVE_INFINITY ? Double.NaN : result;
+                case MAX -> result == Double.NEGATIVE_INFINITY ? Double.NaN : result;
+                case SUM, LAST -> found ? result : Double.NaN;
+            };
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.matthiast.timeseries;
+
+// Berechnet gleitende Aggregate über ein nachlaufendes Fenster in einem Durchlauf über die sortierten Zeitscheiben
+final class RollingWindow {
+
+    private RollingWindow() {
+    }
+
+    // Je Zeitscheibe wird [Ende - window, Ende] wie bei getMinValue/getMaxValue/getTimeWeightedAverageValue aggregiert.
+    // Beide Fenstergrenzen laufen nur vorwärts: Minimum und Maximum kommen aus einer monotonen Deque, der Mittelwert aus laufenden Summen.
+    static TimeSeries rolling(TimeSeries timeSeries, long windowMillis, Aggregation aggregation) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Das Fenster muss positiv sein");
+        }
+        if (aggregation != Aggregation.MEAN && aggregation != Aggregation.MIN && aggregation != Aggregation.MAX) {
+            throw new IllegalArgumentException("Die Aggregation " + aggregation + " wird für gleitende Fenster nicht unterstützt");
+        }
+        int size = timeSeries.size();
+        var builder = TimeSeries.builder(timeSeries.getStartDate(), timeSeries.getEndDate()).expectedSize(size);
+        // Indizes in der Deque; jeder Index wird höchstens einmal eingefügt, daher genügt ein Array ohne Umlauf
+        var deque = new int[size];
+        int head = 0;
+        int tail = 0;
+        double weightedSum = 0.0;
+        long duration = 0;
+        int nonFiniteCount = 0;
+        int from = 0;
+        int to = 0;
+
+        for (int i = 0; i < size; i++) {
+            long windowEnd = timeSeries.endTimeAt(i);
+            long windowStart = windowEnd - windowMillis;
+            while (to < size && timeSeries.startTimeAt(to) < windowEnd) {
+                double value = timeSeries.valueAt(to);
+                if (aggregation == Aggregation.MEAN) {
+                    if (Double.isFinite(value)) {
+                        weightedSum += value * (timeSeries.endTimeAt(to) - timeSeries.startTimeAt(to));
+                    } else {
+                        nonFiniteCount++;
+                    }
+                    duration += timeSeries.endTimeAt(to) - timeSeries.startTimeAt(to);
+                } else if (!Double.isNaN(value)) {
+                    // NaN wird wie bei getMinValue/getMaxValue nie Minimum oder Maximum
+                    while (tail > head && dominates(value, timeSeries.valueAt(deque[tail - 1]), aggregation)) {
+                        tail--;
+                    }
+                    deque[tail++] = to;
+                }
+                to++;
+            }
+            while (from < to && timeSeries.endTimeAt(from) <= windowStart) {
+                if (aggregation == Aggregation.MEAN) {
+                    double value = timeSeries.valueAt(from);
+                    if (Double.isFinite(value)) {
+                        weightedSum -= value * (timeSeries.endTimeAt(from) - timeSeries.startTimeAt(from));
+                    } else {
+                        nonFiniteCount--;
+                    }
+                    duration -= timeSeries.endTimeAt(from) - timeSeries.startTimeAt(from);
+                }
+                from++;
+            }
+            while (tail > head && deque[head] < from) {
+                head++;
+            }
+
+            double result;
+            if (aggregation == Aggregation.MEAN) {
+                result = mean(timeSeries, from, to, windowStart, windowEnd, weightedSum, duration, nonFiniteCount);
+            } else {
+                result = tail > head ? timeSeries.valueAt(deque[head]) : Double.NaN;
+                // Wie bei getMinValue/getMaxValue gilt ein unendliches Extremum als kein Wert
+                if (Double.isInfinite(result) && (result > 0) == (aggregation == Aggregation.MIN)) {
+                    result = Double.NaN;
+                }
+            }
+            builder.addTimeSlice(timeSeries.startTimeAt(i), windowEnd, result);
+        }
+        return builder.build();
+    }
+
+    // Ein neuer Wert verdrängt alle älteren, die nie mehr Minimum bzw. Maximum werden können
+    private static boolean dominates(double value, double older, Aggregation aggregation) {
+        return aggregation == Aggregation.MIN ? value <= older : value >= older;
+    }
+
+    private static double mean(TimeSeries timeSeries, int from, int to, long windowStart, long windowEnd, double weightedSum, long duration, int nonFiniteCount) {
+        if (from >= to) {
+            return Double.NaN;
+        }
+        if (nonFiniteCount > 0) {
+            // Nicht-endliche Werte würden die laufende Summe dauerhaft verfälschen; dieses Fenster wird linear gerechnet
+            return timeSeries.getTimeWeightedAverageValue(windowStart, windowEnd);
+        }
+        // Randzeitscheiben ragen ggf. über das Fenster hinaus und werden gekürzt
+        long cutBefore = Math.max(0, windowStart - timeSeries.startTimeAt(from));
+        long cutAfter = Math.max(0, timeSeries.endTimeAt(to - 1) - windowEnd);
+        double windowSum = weightedSum - timeSeries.valueAt(from) * cutBefore - timeSeries.valueAt(to - 1) * cutAfter;
+        long windowDuration = duration - cutBefore - cutAfter;
+        return windowDuration > 0 ? windowSum / windowDuration : Double.NaN;
+    }
+}
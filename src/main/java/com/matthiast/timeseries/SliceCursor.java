@@ -0,0 +1,18 @@
+package com.matthiast.timeseries;
+
+/**
+ * Zieht Zeitscheiben nacheinander, sortiert nach Startzeit und ohne Überlappung, aus einer Quelle.
+ * Zeiten sind Millisekunden seit 1970 (siehe {@link EpochTime}). Nach {@link #next()} mit Ergebnis
+ * {@code true} beschreiben die Zugriffsmethoden die aktuelle Zeitscheibe; ein Cursor ist nur einmal
+ * durchlaufbar, und seine Quelle darf währenddessen nicht verändert werden.
+ */
+public interface SliceCursor {
+
+    boolean next();
+
+    long startTime();
+
+    long endTime();
+
+    double value();
+}
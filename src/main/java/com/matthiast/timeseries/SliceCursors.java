@@ -0,0 +1,84 @@
+package com.matthiast.timeseries;
+
+import java.time.LocalDateTime;
+
+/**
+ * Endpunkte für {@link SliceCursor}-Pipelines. Jede Methode verbraucht den Cursor in einem Durchlauf
+ * mit konstantem Speicherbedarf; die Bereichsabfragen folgen denselben Regeln wie {@link TimeSeries}.
+ */
+public final class SliceCursors {
+
+    private SliceCursors() {
+    }
+
+    public static TimeSeries toTimeSeries(SliceCursor cursor, LocalDateTime startDate, LocalDateTime endDate) {
+        var result = new TimeSeries(startDate, endDate);
+        long previousEnd = Long.MIN_VALUE;
+        while (cursor.next()) {
+            if (cursor.startTime() < previousEnd) {
+                throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
+            }
+            previousEnd = cursor.endTime();
+            result.append(cursor.startTime(), previousEnd, cursor.value());
+        }
+        return result;
+    }
+
+    public static double getMinValue(SliceCursor cursor, LocalDateTime startTime, LocalDateTime endTime) {
+        long start = EpochTime.toEpochMillis(startTime);
+        long end = EpochTime.toEpochMillis(endTime);
+        double minValue = Double.POSITIVE_INFINITY;
+
+        while (cursor.next() && cursor.startTime() < end) {
+            double value = cursor.value();
+            if (cursor.endTime() > start && value < minValue) {
+                minValue = value;
+            }
+        }
+
+        if (minValue == Double.POSITIVE_INFINITY) {
+            return Double.NaN;
+        }
+
+        return minValue;
+    }
+
+    public static double getMaxValue(SliceCursor cursor, LocalDateTime startTime, LocalDateTime endTime) {
+        long start = EpochTime.toEpochMillis(startTime);
+        long end = EpochTime.toEpochMillis(endTime);
+        double maxValue = Double.NEGATIVE_INFINITY;
+
+        while (cursor.next() && cursor.startTime() < end) {
+            double value = cursor.value();
+            if (cursor.endTime() > start && value > maxValue) {
+                maxValue = value;
+            }
+        }
+
+        if (maxValue == Double.NEGATIVE_INFINITY) {
+            return Double.NaN;
+        }
+
+        return maxValue;
+    }
+
+    public static double getAverageValue(SliceCursor cursor, LocalDateTime startTime, LocalDateTime endTime) {
+        long start = EpochTime.toEpochMillis(startTime);
+        long end = EpochTime.toEpochMillis(endTime);
+        double sum = 0.0;
+        int count = 0;
+
+        while (cursor.next() && cursor.startTime() < end) {
+            if (cursor.endTime() > start) {
+                sum += cursor.value();
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        return sum / count;
+    }
+}
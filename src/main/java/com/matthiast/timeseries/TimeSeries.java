@@ -1,18 +1,53 @@
 package com.matthiast.timeseries;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TimeSeries {
 
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
     private final LocalDateTime startDate;
     private final LocalDateTime endDate;
-    private final List<TimeSlice> timeSlices;
+    private final long startMillis;
+    private final long endMillis;
+
+    // Spaltenweise Ablage der Zeitscheiben, sortiert nach (Startzeit, Endzeit);
+    // da sich Zeitscheiben nicht überlappen, sind damit auch die Endzeiten sortiert
+    private long[] startTimes;
+    private long[] endTimes;
+    private double[] values;
+    private int size;
+
+    private final boolean immutable;
+    // Identität und Änderungsstand, über die Caches Ergebnisse zuordnen, ohne die Zeitreihe selbst zu halten
+    private final long id = NEXT_ID.getAndIncrement();
+    private int modCount;
+    private List<TimeSeriesListener> listeners;
+    private boolean aggregationIndexEnabled;
+    private AggregationIndex aggregationIndex;
 
     public TimeSeries(LocalDateTime startDate, LocalDateTime endDate) {
+        this(startDate, endDate, new long[DEFAULT_CAPACITY], new long[DEFAULT_CAPACITY], new double[DEFAULT_CAPACITY], 0, false);
+    }
+
+    private TimeSeries(LocalDateTime startDate, LocalDateTime endDate, long[] startTimes, long[] endTimes, double[] values, int size, boolean immutable) {
         this.startDate = startDate;
         this.endDate = endDate;
-        this.timeSlices = new ArrayList<>();
+        this.startMillis = EpochTime.toEpochMillis(startDate);
+        this.endMillis = EpochTime.toEpochMillis(endDate);
+        this.startTimes = startTimes;
+        this.endTimes = endTimes;
+        this.values = values;
+        this.size = size;
+        this.immutable = immutable;
+    }
+
+    public static Builder builder(LocalDateTime startDate, LocalDateTime endDate) {
+        return new Builder(startDate, endDate);
     }
 
     public LocalDateTime getStartDate() {
@@ -24,49 +59,97 @@ public class TimeSeries {
     }
 
     public List<TimeSlice> getTimeSlices() {
-        return timeSlices;
+        return new TimeSliceView();
+    }
+
+    // Durchläuft die Zeitscheiben ohne TimeSlice-Objekte anzulegen
+    public SliceCursor cursor() {
+        return new ColumnCursor();
+    }
+
+    public boolean isImmutable() {
+        return immutable;
     }
 
     public void addTimeSlice(TimeSlice timeSliceToAdd) {
+        checkMutable();
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("Startdatum muss vor Enddatum liegen");
         }
-        if (!isValidTimeFrame(timeSliceToAdd.startTime(), timeSliceToAdd.endTime())) {
+        long start = EpochTime.toEpochMillis(timeSliceToAdd.startTime());
+        long end = EpochTime.toEpochMillis(timeSliceToAdd.endTime());
+        if (start > end) {
+            throw new IllegalArgumentException("Die Startzeit der Zeitscheibe muss vor ihrer Endzeit liegen");
+        }
+        if (!isValidTimeFrame(start, end)) {
             throw new IllegalArgumentException("Die Zeitscheibe liegt außerhalb des gültigen Zeitraums.");
         }
 
-        for (TimeSlice timeSlice: timeSlices) {
-            if (timeSlice.overlapsWith(timeSliceToAdd)) {
-                throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
-            }
+        int candidate = firstEndingAfter(start);
+        if (candidate < size && startTimes[candidate] < end) {
+            TimeSeriesMetrics.recordOverlapRejection();
+            throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
         }
-        timeSlices.add(timeSliceToAdd);
+        insert(insertionPoint(start, end), start, end, timeSliceToAdd.value());
+        fireTimeSlicesChanged(start, end);
     }
 
     public void removeTimeSlice(LocalDateTime startTime, LocalDateTime endTime) {
-        timeSlices.removeIf(slice -> slice.startTime().isBefore(endTime) && slice.endTime().isAfter(startTime));
+        checkMutable();
+        int from = firstEndingAfter(EpochTime.toEpochMillis(startTime));
+        int to = firstStartingAtOrAfter(EpochTime.toEpochMillis(endTime));
+        if (from < to) {
+            long changedStart = startTimes[from];
+            long changedEnd = endTimes[to - 1];
+            System.arraycopy(startTimes, to, startTimes, from, size - to);
+            System.arraycopy(endTimes, to, endTimes, from, size - to);
+            System.arraycopy(values, to, values, from, size - to);
+            size -= to - from;
+            modCount++;
+            aggregationIndex = null;
+            fireTimeSlicesChanged(changedStart, changedEnd);
+        }
     }
 
     public double getValueAtTime(LocalDateTime time) {
-        for (TimeSlice slice : timeSlices) {
-            if (time.isAfter(slice.startTime()) && time.isBefore(slice.endTime())) {
-                return slice.value();
-            }
+        return getValueAtTime(EpochTime.toEpochMillis(time));
+    }
+
+    public double getValueAtTime(long epochMillis) {
+        TimeSeriesMetrics.recordValueLookup();
+        int index = firstStartingAtOrAfter(epochMillis) - 1;
+        if (index >= 0 && epochMillis > startTimes[index] && epochMillis < endTimes[index]) {
+            return values[index];
         }
         return Double.NaN;
     }
 
+    // Schreibt für jeden Zeitpunkt den Wert nach out; aufsteigend sortierte Zeitpunkte werden in einem Durchlauf abgearbeitet
+    public void getValuesAtTimes(long[] epochMillis, double[] out) {
+        if (out.length < epochMillis.length) {
+            throw new IllegalArgumentException("Das Ergebnis-Array ist zu kurz");
+        }
+        int position = 0;
+        long previous = Long.MIN_VALUE;
+        for (int q = 0; q < epochMillis.length; q++) {
+            long time = epochMillis[q];
+            // Unsortierte Zeitpunkte beginnen die Suche von vorn
+            position = time < previous ? firstStartingAtOrAfter(time) : firstStartingAtOrAfter(time, position);
+            previous = time;
+            int index = position - 1;
+            out[q] = index >= 0 && time > startTimes[index] && time < endTimes[index] ? values[index] : Double.NaN;
+        }
+    }
+
     public double getMinValue(LocalDateTime startTime, LocalDateTime endTime) {
-        double minValue = Double.POSITIVE_INFINITY;
+        return getMinValue(EpochTime.toEpochMillis(startTime), EpochTime.toEpochMillis(endTime));
+    }
 
-        for (TimeSlice slice : timeSlices) {
-            if (slice.startTime().isBefore(endTime) && slice.endTime().isAfter(startTime)) {
-                double value = slice.value();
-                if (value < minValue) {
-                    minValue = value;
-                }
-            }
-        }
+    public double getMinValue(long startEpochMillis, long endEpochMillis) {
+        int from = firstEndingAfter(startEpochMillis);
+        int to = firstStartingAtOrAfter(endEpochMillis);
+        var index = aggregationIndex();
+        double minValue = index != null ? index.min(from, to) : scanMin(from, to);
 
         if (minValue == Double.POSITIVE_INFINITY) {
             return Double.NaN;
@@ -76,16 +159,14 @@ public class TimeSeries {
     }
 
     public double getMaxValue(LocalDateTime startTime, LocalDateTime endTime) {
-        double maxValue = Double.NEGATIVE_INFINITY;
+        return getMaxValue(EpochTime.toEpochMillis(startTime), EpochTime.toEpochMillis(endTime));
+    }
 
-        for (TimeSlice slice : timeSlices) {
-            if (slice.startTime().isBefore(endTime) && slice.endTime().isAfter(startTime)) {
-                double value = slice.value();
-                if (value > maxValue) {
-                    maxValue = value;
-                }
-            }
-        }
+    public double getMaxValue(long startEpochMillis, long endEpochMillis) {
+        int from = firstEndingAfter(startEpochMillis);
+        int to = firstStartingAtOrAfter(endEpochMillis);
+        var index = aggregationIndex();
+        double maxValue = index != null ? index.max(from, to) : scanMax(from, to);
 
         if (maxValue == Double.NEGATIVE_INFINITY) {
             return Double.NaN;
@@ -95,24 +176,500 @@ public class TimeSeries {
     }
 
     public double getAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
-        double sum = 0.0;
-        int count = 0;
+        return getAverageValue(EpochTime.toEpochMillis(startTime), EpochTime.toEpochMillis(endTime));
+    }
+
+    public double getAverageValue(long startEpochMillis, long endEpochMillis) {
+        int from = firstEndingAfter(startEpochMillis);
+        int to = firstStartingAtOrAfter(endEpochMillis);
+
+        if (from >= to) {
+            return Double.NaN;
+        }
+
+        var index = aggregationIndex();
+        double sum = index != null && index.isFinite(from, to) ? index.sum(from, to) : scanSum(from, to);
 
-        for (TimeSlice slice : timeSlices) {
-            if (slice.startTime().isBefore(endTime) && slice.endTime().isAfter(startTime)) {
-                sum += slice.value();
-                count++;
+        return sum / (to - from);
+    }
+
+    // Durchschnitt gewichtet mit der Dauer, mit der jede Zeitscheibe im Abfragezeitraum liegt
+    public double getTimeWeightedAverageValue(LocalDateTime startTime, LocalDateTime endTime) {
+        return getTimeWeightedAverageValue(EpochTime.toEpochMillis(startTime), EpochTime.toEpochMillis(endTime));
+    }
+
+    public double getTimeWeightedAverageValue(long startEpochMillis, long endEpochMillis) {
+        int from = firstEndingAfter(startEpochMillis);
+        int to = firstStartingAtOrAfter(endEpochMillis);
+
+        if (from >= to) {
+            return Double.NaN;
+        }
+
+        double weightedSum = 0.0;
+        long duration = 0;
+        var index = aggregationIndex();
+        if (index != null && index.isFinite(from, to)) {
+            // Randzeitscheiben ragen ggf. über den Abfragezeitraum hinaus und werden gekürzt
+            long cutBefore = Math.max(0, startEpochMillis - startTimes[from]);
+            long cutAfter = Math.max(0, endTimes[to - 1] - endEpochMillis);
+            weightedSum = index.weightedSum(from, to) - values[from] * cutBefore - values[to - 1] * cutAfter;
+            duration = index.duration(from, to) - cutBefore - cutAfter;
+        } else {
+            for (int i = from; i < to; i++) {
+                long overlap = Math.min(endTimes[i], endEpochMillis) - Math.max(startTimes[i], startEpochMillis);
+                weightedSum += values[i] * overlap;
+                duration += overlap;
             }
         }
 
-        if (count == 0) {
+        if (duration <= 0) {
             return Double.NaN;
         }
 
-        return sum / count;
+        return weightedSum / duration;
+    }
+
+    // Aggregiert die Zeitscheiben in Intervalle fester Länge; das letzte Intervall darf über endTime hinausragen
+    public ResampledSeries resample(LocalDateTime startTime, LocalDateTime endTime, Duration interval, Aggregation aggregation) {
+        long start = EpochTime.toEpochMillis(startTime);
+        long intervalMillis = interval.toMillis();
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Das Intervall muss positiv sein");
+        }
+        long duration = Math.max(0, EpochTime.toEpochMillis(endTime) - start);
+        var out = new double[Math.toIntExact((duration + intervalMillis - 1) / intervalMillis)];
+        Resampler.resample(this, start, intervalMillis, aggregation, out);
+        return new ResampledSeries(start, intervalMillis, out);
+    }
+
+    // Schreibt out.length Intervalle ab startEpochMillis direkt in das übergebene Array
+    public void resample(long startEpochMillis, long intervalMillis, Aggregation aggregation, double[] out) {
+        Resampler.resample(this, startEpochMillis, intervalMillis, aggregation, out);
+    }
+
+    // Gleitendes Aggregat (MEAN, MIN oder MAX) über das Fenster, das am Ende jeder Zeitscheibe endet; das Ergebnis hat dieselben Zeitscheiben
+    public TimeSeries rolling(Duration window, Aggregation aggregation) {
+        return RollingWindow.rolling(this, window.toMillis(), aggregation);
+    }
+
+    // Aktiviert einen Index für wiederholte Bereichsabfragen; er wird bei Bedarf aufgebaut und bei jeder Änderung verworfen
+    public void setAggregationIndexEnabled(boolean aggregationIndexEnabled) {
+        this.aggregationIndexEnabled = aggregationIndexEnabled;
+        if (!aggregationIndexEnabled) {
+            aggregationIndex = null;
+        }
+    }
+
+    public void addListener(TimeSeriesListener listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(TimeSeriesListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Zeitscheiben, die [from, to) berühren, auf diesen Zeitraum gekürzt; Zeitscheiben ohne Dauer gehören zum Zeitraum ihrer Startzeit
+    SliceCursor cursor(long from, long to) {
+        return new RangeCursor(from, to);
+    }
+
+    // Spalten nur lesen; gültig sind die ersten size() Einträge
+    double[] values() {
+        return values;
+    }
+
+    boolean hasSameBoundariesAs(TimeSeries other) {
+        return size == other.size
+                && Arrays.equals(startTimes, 0, size, other.startTimes, 0, size)
+                && Arrays.equals(endTimes, 0, size, other.endTimes, 0, size);
+    }
+
+    long id() {
+        return id;
+    }
+
+    int modCount() {
+        return modCount;
+    }
+
+    // Übergibt die Spalten an eine unveränderliche Zeitreihe; der Aufrufer darf diese Zeitreihe danach nicht mehr ändern
+    TimeSeries freeze() {
+        return immutable ? this : new TimeSeries(startDate, endDate, startTimes, endTimes, values, size, true);
+    }
+
+    long startTimeAt(int index) {
+        return startTimes[index];
+    }
+
+    long endTimeAt(int index) {
+        return endTimes[index];
+    }
+
+    double valueAt(int index) {
+        return values[index];
+    }
+
+    // Hängt eine Zeitscheibe ohne Prüfung an; der Aufrufer garantiert Sortierung und Überlappungsfreiheit
+    void append(long start, long end, double value) {
+        checkMutable();
+        insert(size, start, end, value);
+    }
+
+    // Ersetzt die Zeitscheiben [from, to) durch alle Zeitscheiben von replacement; der Aufrufer garantiert die Sortierung
+    void replace(int from, int to, TimeSeries replacement) {
+        checkMutable();
+        int count = replacement.size;
+        int newSize = size - (to - from) + count;
+        if (newSize > startTimes.length) {
+            int capacity = Math.max(newSize, size + (size >> 1) + 1);
+            startTimes = Arrays.copyOf(startTimes, capacity);
+            endTimes = Arrays.copyOf(endTimes, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(startTimes, to, startTimes, from + count, size - to);
+        System.arraycopy(endTimes, to, endTimes, from + count, size - to);
+        System.arraycopy(values, to, values, from + count, size - to);
+        System.arraycopy(replacement.startTimes, 0, startTimes, from, count);
+        System.arraycopy(replacement.endTimes, 0, endTimes, from, count);
+        System.arraycopy(replacement.values, 0, values, from, count);
+        size = newSize;
+        modCount++;
+        aggregationIndex = null;
+    }
+
+    private void fireTimeSlicesChanged(long start, long end) {
+        if (listeners != null) {
+            for (TimeSeriesListener listener : listeners) {
+                listener.timeSlicesChanged(this, start, end);
+            }
+        }
+    }
+
+    private boolean isValidTimeFrame(long startTime, long endTime) {
+        return isValidTimeFrame(startMillis, endMillis, startTime, endTime);
+    }
+
+    // Gemeinsame Prüfung aller Zeitreihen-Varianten, damit sie dieselben Zeitscheiben annehmen und ablehnen
+    static boolean isValidTimeFrame(long startMillis, long endMillis, long startTime, long endTime) {
+        return startTime == startMillis
+                || (startTime > startMillis && endTime == endMillis)
+                || endTime < endMillis;
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Die Zeitreihe ist unveränderlich");
+        }
+    }
+
+    private AggregationIndex aggregationIndex() {
+        if (aggregationIndexEnabled && aggregationIndex == null) {
+            aggregationIndex = new AggregationIndex(startTimes, endTimes, values, size);
+        }
+        return aggregationIndex;
     }
 
-    private boolean isValidTimeFrame(LocalDateTime startTime, LocalDateTime endTime) {
-        return startTime.isEqual(startDate) || startTime.isAfter(startDate) && endTime.isEqual(endDate) || endTime.isBefore(endDate);
+    private double scanMin(int from, int to) {
+        TimeSeriesMetrics.recordScannedSlices(Math.max(0, to - from));
+        double minValue = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            double value = values[i];
+            if (value < minValue) {
+                minValue = value;
+            }
+        }
+        return minValue;
+    }
+
+    private double scanMax(int from, int to) {
+        TimeSeriesMetrics.recordScannedSlices(Math.max(0, to - from));
+        double maxValue = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            double value = values[i];
+            if (value > maxValue) {
+                maxValue = value;
+            }
+        }
+        return maxValue;
+    }
+
+    private double scanSum(int from, int to) {
+        TimeSeriesMetrics.recordScannedSlices(Math.max(0, to - from));
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    private void insert(int index, long start, long end, double value) {
+        if (size == startTimes.length) {
+            int capacity = size + (size >> 1) + 1;
+            startTimes = Arrays.copyOf(startTimes, capacity);
+            endTimes = Arrays.copyOf(endTimes, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        if (index < size) {
+            System.arraycopy(startTimes, index, startTimes, index + 1, size - index);
+            System.arraycopy(endTimes, index, endTimes, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+        }
+        startTimes[index] = start;
+        endTimes[index] = end;
+        values[index] = value;
+        size++;
+        modCount++;
+        aggregationIndex = null;
+    }
+
+    private int insertionPoint(long start, long end) {
+        if (size == 0 || compare(size - 1, start, end) <= 0) {
+            return size;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, start, end) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int index, long start, long end) {
+        int result = Long.compare(startTimes[index], start);
+        return result != 0 ? result : Long.compare(endTimes[index], end);
+    }
+
+    // Index der ersten Zeitscheibe, deren Endzeit nach time liegt
+    int firstEndingAfter(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (endTimes[mid] > time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // Wie firstStartingAtOrAfter(time), sucht aber erst mit wachsender Schrittweite ab from und dann binär
+    private int firstStartingAtOrAfter(long time, int from) {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while (high < size && startTimes[high] < time) {
+            low = high + 1;
+            high = (int) Math.min((long) from + step, size);
+            step <<= 1;
+        }
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startTimes[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Index der ersten Zeitscheibe, deren Startzeit nicht vor time liegt
+    int firstStartingAtOrAfter(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startTimes[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private final class ColumnCursor implements SliceCursor {
+        private int index = -1;
+
+        @Override
+        public boolean next() {
+            return ++index < size;
+        }
+
+        @Override
+        public long startTime() {
+            return startTimes[index];
+        }
+
+        @Override
+        public long endTime() {
+            return endTimes[index];
+        }
+
+        @Override
+        public double value() {
+            return values[index];
+        }
+    }
+
+    private final class RangeCursor implements SliceCursor {
+        private final long from;
+        private final long to;
+        private final int end;
+        private int index;
+
+        private RangeCursor(long from, long to) {
+            this.from = from;
+            this.to = to;
+            int first = firstStartingAtOrAfter(from);
+            // Die letzte Zeitscheibe davor kann in den Zeitraum hineinragen
+            if (first > 0 && endTimes[first - 1] > from) {
+                first--;
+            }
+            this.index = first - 1;
+            this.end = from < to ? firstStartingAtOrAfter(to) : first;
+        }
+
+        @Override
+        public boolean next() {
+            return ++index < end;
+        }
+
+        @Override
+        public long startTime() {
+            return Math.max(startTimes[index], from);
+        }
+
+        @Override
+        public long endTime() {
+            return Math.min(endTimes[index], to);
+        }
+
+        @Override
+        public double value() {
+            return values[index];
+        }
+    }
+
+    // Erzeugt die Zeitscheiben erst beim Zugriff aus den Spalten
+    private final class TimeSliceView extends AbstractList<TimeSlice> implements RandomAccess {
+
+        @Override
+        public TimeSlice get(int index) {
+            Objects.checkIndex(index, size);
+            return new TimeSlice(EpochTime.toLocalDateTime(startTimes[index]), EpochTime.toLocalDateTime(endTimes[index]), values[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Baut eine unveränderliche Zeitreihe aus bereits sortierten Zeitscheiben. Reihenfolge und
+     * Überlappungsfreiheit werden beim Hinzufügen gegen die jeweils vorherige Zeitscheibe geprüft.
+     */
+    public static final class Builder {
+
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private final long startMillis;
+        private final long endMillis;
+        private long[] startTimes;
+        private long[] endTimes;
+        private double[] values;
+        private int size;
+        private boolean built;
+
+        private Builder(LocalDateTime startDate, LocalDateTime endDate) {
+            if (startDate.isAfter(endDate)) {
+                throw new IllegalArgumentException("Startdatum muss vor Enddatum liegen");
+            }
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.startMillis = EpochTime.toEpochMillis(startDate);
+            this.endMillis = EpochTime.toEpochMillis(endDate);
+            this.startTimes = new long[DEFAULT_CAPACITY];
+            this.endTimes = new long[DEFAULT_CAPACITY];
+            this.values = new double[DEFAULT_CAPACITY];
+        }
+
+        public Builder expectedSize(int expectedSize) {
+            ensureCapacity(expectedSize);
+            return this;
+        }
+
+        public Builder addTimeSlice(TimeSlice timeSlice) {
+            return addTimeSlice(EpochTime.toEpochMillis(timeSlice.startTime()), EpochTime.toEpochMillis(timeSlice.endTime()), timeSlice.value());
+        }
+
+        public Builder addTimeSlices(Collection<TimeSlice> timeSlices) {
+            ensureCapacity(size + timeSlices.size());
+            for (TimeSlice timeSlice : timeSlices) {
+                addTimeSlice(timeSlice);
+            }
+            return this;
+        }
+
+        public Builder addTimeSlice(long startEpochMillis, long endEpochMillis, double value) {
+            if (built) {
+                throw new IllegalStateException("Die Zeitreihe wurde bereits gebaut");
+            }
+            if (startEpochMillis > endEpochMillis) {
+                throw new IllegalArgumentException("Die Startzeit der Zeitscheibe muss vor ihrer Endzeit liegen");
+            }
+            if (!isValidTimeFrame(startMillis, endMillis, startEpochMillis, endEpochMillis)) {
+                throw new IllegalArgumentException("Die Zeitscheibe liegt außerhalb des gültigen Zeitraums.");
+            }
+            // Reihenfolge wie in der Zeitreihe nach (Startzeit, Endzeit); erst danach auf Überlappung prüfen
+            if (size > 0 && (startEpochMillis < startTimes[size - 1]
+                    || startEpochMillis == startTimes[size - 1] && endEpochMillis < endTimes[size - 1])) {
+                throw new IllegalArgumentException("Die Zeitscheiben müssen nach Startzeit sortiert sein");
+            }
+            if (size > 0 && startEpochMillis < endTimes[size - 1]) {
+                throw new IllegalArgumentException("Die Zeitscheiben dürfen sich nicht überlappen");
+            }
+            ensureCapacity(size + 1);
+            startTimes[size] = startEpochMillis;
+            endTimes[size] = endEpochMillis;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public TimeSeries build() {
+            if (built) {
+                throw new IllegalStateException("Die Zeitreihe wurde bereits gebaut");
+            }
+            built = true;
+            return new TimeSeries(startDate, endDate, startTimes, endTimes, values, size, true);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > startTimes.length) {
+                int newCapacity = Math.max(capacity, startTimes.length + (startTimes.length >> 1));
+                startTimes = Arrays.copyOf(startTimes, newCapacity);
+                endTimes = Arrays.copyOf(endTimes, newCapacity);
+                values = Arrays.copyOf(values, newCapacity);
+            }
+        }
     }
 }
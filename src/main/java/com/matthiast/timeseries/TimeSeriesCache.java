@@ -0,0 +1,133 @@
+package com.matthiast.timeseries;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Zwischenspeicher für Ergebnisse von Addition, Subtraktion und Bereichsaggregaten. Einträge sind
+ * über die Identität und den Änderungsstand der beteiligten Zeitreihen sowie den Abfragezeitraum
+ * geschlüsselt: ändert {@code addTimeSlice} oder {@code removeTimeSlice} eine Quelle, treffen spätere
+ * Abfragen den alten Eintrag nicht mehr, und er wird mit der Zeit verdrängt. Die Schlüssel verweisen
+ * nicht auf die Quellen, sodass ein veralteter Eintrag nur sein eigenes Ergebnis belegt. Verdrängt wird nach
+ * geschätztem Speicherbedarf in LRU-Reihenfolge. Zwischengespeicherte Zeitreihen sind unveränderlich.
+ */
+public final class TimeSeriesCache {
+
+    // Geschätzter Bedarf eines Eintrags samt Schlüssel bzw. einer Zeitscheibe in Spaltenform
+    private static final long ENTRY_WEIGHT = 128;
+    private static final long SLICE_WEIGHT = 24;
+
+    private static final TimeSeriesAdder ADDER = new TimeSeriesAdder();
+    private static final TimeSeriesSubtractor SUBTRACTOR = new TimeSeriesSubtractor();
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public TimeSeriesCache(long maxWeightInBytes) {
+        if (maxWeightInBytes <= 0) {
+            throw new IllegalArgumentException("Die Größe des Caches muss positiv sein");
+        }
+        this.maxWeight = maxWeightInBytes;
+    }
+
+    public TimeSeries addTimeSeries(TimeSeries timeSeriesA, TimeSeries timeSeriesB) {
+        return (TimeSeries) get(new Key(Operation.ADD, timeSeriesA, timeSeriesB, 0, 0),
+                () -> ADDER.addTimeSeries(timeSeriesA, timeSeriesB).freeze());
+    }
+
+    public TimeSeries subtractTimeSeries(TimeSeries timeSeries, TimeSeries subtrahend) {
+        return (TimeSeries) get(new Key(Operation.SUBTRACT, timeSeries, subtrahend, 0, 0),
+                () -> SUBTRACTOR.subtractTimeSeries(timeSeries, subtrahend).freeze());
+    }
+
+    public double getMinValue(TimeSeries timeSeries, LocalDateTime startTime, LocalDateTime endTime) {
+        return aggregate(Operation.MIN, timeSeries, startTime, endTime, () -> timeSeries.getMinValue(startTime, endTime));
+    }
+
+    public double getMaxValue(TimeSeries timeSeries, LocalDateTime startTime, LocalDateTime endTime) {
+        return aggregate(Operation.MAX, timeSeries, startTime, endTime, () -> timeSeries.getMaxValue(startTime, endTime));
+    }
+
+    public double getAverageValue(TimeSeries timeSeries, LocalDateTime startTime, LocalDateTime endTime) {
+        return aggregate(Operation.AVERAGE, timeSeries, startTime, endTime, () -> timeSeries.getAverageValue(startTime, endTime));
+    }
+
+    public double getTimeWeightedAverageValue(TimeSeries timeSeries, LocalDateTime startTime, LocalDateTime endTime) {
+        return aggregate(Operation.TIME_WEIGHTED_AVERAGE, timeSeries, startTime, endTime, () -> timeSeries.getTimeWeightedAverageValue(startTime, endTime));
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getWeightInBytes() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private double aggregate(Operation operation, TimeSeries timeSeries, LocalDateTime startTime, LocalDateTime endTime, Supplier<Double> computation) {
+        var key = new Key(operation, timeSeries, null, EpochTime.toEpochMillis(startTime), EpochTime.toEpochMillis(endTime));
+        return (Double) get(key, computation::get);
+    }
+
+    private Object get(Key key, Supplier<Object> computation) {
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+                return entry.result;
+            }
+            missCount++;
+        }
+        // Außerhalb der Sperre rechnen; parallele Fehlversuche rechnen ggf. doppelt, liefern aber dasselbe Ergebnis
+        var result = computation.get();
+        var entry = new Entry(result, ENTRY_WEIGHT + (result instanceof TimeSeries timeSeries ? SLICE_WEIGHT * timeSeries.size() : 0));
+        synchronized (this) {
+            var previous = entries.put(key, entry);
+            weight += entry.weight - (previous != null ? previous.weight : 0);
+            var iterator = entries.values().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                weight -= iterator.next().weight;
+                iterator.remove();
+                evictionCount++;
+            }
+        }
+        return result;
+    }
+
+    private enum Operation {
+        ADD, SUBTRACT, MIN, MAX, AVERAGE, TIME_WEIGHTED_AVERAGE
+    }
+
+    // Zeitreihen gehen nur mit Id und Änderungsstand ein; veraltete Einträge halten ihre Quellen so nicht am Leben
+    private record Key(Operation operation, long firstId, int firstModCount, long secondId, int secondModCount, long startTime, long endTime) {
+
+        private Key(Operation operation, TimeSeries first, TimeSeries second, long startTime, long endTime) {
+            this(operation, first.id(), first.modCount(), second != null ? second.id() : -1, second != null ? second.modCount() : 0, startTime, endTime);
+        }
+    }
+
+    private record Entry(Object result, long weight) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.matthiast.timeseries;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Verknüpft zwei Zeitreihen Abschnitt für Abschnitt mit einem beliebigen Operator. Abschnitte, die
+ * nur eine Zeitreihe abdeckt, werden über {@code onlyFirst} bzw. {@code onlySecond} abgebildet oder
+ * bei {@code null} weggelassen. Haben beide Zeitreihen genau dieselben Zeitscheiben-Grenzen (z. B.
+ * regelmäßige Viertelstundenwerte), wird der Operator direkt über die Wertespalten angewendet.
+ * Sehr lange Zeitreihen lassen sich mit {@link #combineParallel} in Abschnitten parallel verknüpfen.
+ */
+public class TimeSeriesCombiner {
+
+    private static final int MIN_SLICES_PER_CHUNK = 1 << 16;
+
+    private final DoubleBinaryOperator combined;
+    private final TimeSliceMerger merger;
+
+    public TimeSeriesCombiner(DoubleBinaryOperator combined, DoubleUnaryOperator onlyFirst, DoubleUnaryOperator onlySecond) {
+        this.combined = combined;
+        this.merger = new TimeSliceMerger(combined, onlyFirst, onlySecond);
+    }
+
+    public static TimeSeriesCombiner of(BinaryOperation operation) {
+        return new TimeSeriesCombiner(operation, operation.onlyFirst(), operation.onlySecond());
+    }
+
+    public TimeSeries combine(TimeSeries first, TimeSeries second) {
+        if (!first.hasSameBoundariesAs(second)) {
+            return merger.merge(first, second);
+        }
+        int size = first.size();
+        var values = new double[size];
+        if (combined instanceof BinaryOperation operation) {
+            operation.apply(first.values(), second.values(), values, size);
+        } else {
+            double[] firstValues = first.values();
+            double[] secondValues = second.values();
+            for (int i = 0; i < size; i++) {
+                values[i] = combined.applyAsDouble(firstValues[i], secondValues[i]);
+            }
+        }
+
+        var result = new TimeSeries(TimeSliceMerger.calculateCombinedStart(first, second), TimeSliceMerger.calculateCombinedEnd(first, second));
+        var sink = new JoiningSink(result);
+        for (int i = 0; i < size; i++) {
+            sink.accept(first.startTimeAt(i), first.endTimeAt(i), values[i]);
+        }
+        sink.flush();
+        return result;
+    }
+
+    public SliceCursor combine(SliceCursor first, SliceCursor second) {
+        return merger.merge(first, second);
+    }
+
+    // Teilt den Zeitraum an Startzeiten der längeren Zeitreihe in Abschnitte, verknüpft sie im ForkJoin-Pool
+    // und fügt die Ergebnisse zusammen; am Abschnittsrand zerschnittene gleiche Nachbarn werden wieder verbunden
+    public TimeSeries combineParallel(TimeSeries first, TimeSeries second) {
+        return combineParallel(first, second, MIN_SLICES_PER_CHUNK);
+    }
+
+    TimeSeries combineParallel(TimeSeries first, TimeSeries second, int minSlicesPerChunk) {
+        long totalSlices = (long) first.size() + second.size();
+        int chunks = (int) Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, totalSlices / minSlicesPerChunk);
+        if (chunks <= 1 || first.hasSameBoundariesAs(second)) {
+            return combine(first, second);
+        }
+
+        var sample = first.size() >= second.size() ? first : second;
+        var boundaries = new long[chunks + 1];
+        boundaries[0] = Long.MIN_VALUE;
+        boundaries[chunks] = Long.MAX_VALUE;
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            boundaries[chunk] = sample.startTimeAt((int) ((long) sample.size() * chunk / chunks));
+        }
+
+        var result = new TimeSeries(TimeSliceMerger.calculateCombinedStart(first, second), TimeSliceMerger.calculateCombinedEnd(first, second));
+        var chunkResults = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    var chunkResult = new TimeSeries(result.getStartDate(), result.getEndDate());
+                    long from = boundaries[chunk];
+                    long to = boundaries[chunk + 1];
+                    var cursor = merger.merge(first.cursor(from, to), second.cursor(from, to));
+                    while (cursor.next()) {
+                        chunkResult.append(cursor.startTime(), cursor.endTime(), cursor.value());
+                    }
+                    return chunkResult;
+                })
+                .toList();
+        var sink = new JoiningSink(result);
+        for (TimeSeries chunkResult : chunkResults) {
+            for (int i = 0; i < chunkResult.size(); i++) {
+                sink.accept(chunkResult.startTimeAt(i), chunkResult.endTimeAt(i), chunkResult.valueAt(i));
+            }
+        }
+        sink.flush();
+        return result;
+    }
+}
@@ -0,0 +1,207 @@
+package com.matthiast.timeseries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * CSV-Format für Zeitreihen: eine Kopfzeile {@value #HEADER}, danach je Zeitscheibe eine Zeile
+ * {@code startTime,endTime,value} mit ISO-Zeitstempeln ohne Zeitzone (UTC), z. B.
+ * {@code 2023-01-03T00:00:00,2023-01-05T00:00:00,2.0}. Gelesen und geschrieben wird in großen Blöcken
+ * über einen Kanal; Zeitstempel und einfache Dezimalzahlen werden direkt auf den Bytes verarbeitet.
+ */
+public final class TimeSeriesCsv {
+
+    static final String HEADER = "startTime,endTime,value";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Zwei Zeitstempel mit Millisekunden, ein double und die Trennzeichen passen sicher hinein
+    private static final int MAX_LINE_LENGTH = 128;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private TimeSeriesCsv() {
+    }
+
+    public static void write(TimeSeries timeSeries, Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(timeSeries.cursor(), channel);
+        }
+    }
+
+    // Schreibt alle Zeitscheiben des Cursors; so lassen sich auch Ergebnisse von Cursor-Verknüpfungen ohne Zwischenspeicher exportieren
+    public static void write(SliceCursor cursor, WritableByteChannel channel) throws IOException {
+        var bytes = new byte[BUFFER_SIZE];
+        var buffer = ByteBuffer.wrap(bytes);
+        int position = writeAscii(HEADER, bytes, 0);
+        bytes[position++] = '\n';
+        while (cursor.next()) {
+            if (bytes.length - position < MAX_LINE_LENGTH) {
+                flush(channel, buffer, position);
+                position = 0;
+            }
+            position = EpochTimeFormat.formatIso(cursor.startTime(), bytes, position);
+            bytes[position++] = ',';
+            position = EpochTimeFormat.formatIso(cursor.endTime(), bytes, position);
+            bytes[position++] = ',';
+            position = writeValue(cursor.value(), bytes, position);
+            bytes[position++] = '\n';
+        }
+        flush(channel, buffer, position);
+    }
+
+    public static TimeSeries read(Path path, LocalDateTime startDate, LocalDateTime endDate) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel, startDate, endDate);
+        }
+    }
+
+    // Die Zeilen müssen nach Startzeit sortiert sein; das Ergebnis ist unveränderlich
+    public static TimeSeries read(ReadableByteChannel channel, LocalDateTime startDate, LocalDateTime endDate) throws IOException {
+        var builder = TimeSeries.builder(startDate, endDate);
+        var bytes = new byte[BUFFER_SIZE];
+        var buffer = ByteBuffer.wrap(bytes);
+        long lineNumber = 0;
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            endOfInput = channel.read(buffer) < 0;
+            int limit = buffer.position();
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    parseLine(bytes, lineStart, i, ++lineNumber, builder);
+                    lineStart = i + 1;
+                }
+            }
+            if (endOfInput && lineStart < limit) {
+                parseLine(bytes, lineStart, limit, ++lineNumber, builder);
+                lineStart = limit;
+            }
+            if (lineStart == 0 && limit == bytes.length) {
+                throw new IOException("Zeile " + (lineNumber + 1) + " der CSV-Datei ist zu lang");
+            }
+            // Angefangene Zeile an den Pufferanfang schieben
+            System.arraycopy(bytes, lineStart, bytes, 0, limit - lineStart);
+            buffer.position(limit - lineStart);
+        }
+        return builder.build();
+    }
+
+    private static void parseLine(byte[] bytes, int from, int to, long lineNumber, TimeSeries.Builder builder) throws IOException {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        if (from == to || lineNumber == 1 && (bytes[from] < '0' || bytes[from] > '9')) {
+            // Leerzeile oder Kopfzeile
+            return;
+        }
+        int firstComma = indexOf(bytes, from, to, (byte) ',');
+        int secondComma = firstComma < 0 ? -1 : indexOf(bytes, firstComma + 1, to, (byte) ',');
+        if (secondComma < 0) {
+            throw new IOException("Zeile " + lineNumber + " der CSV-Datei hat nicht drei Spalten");
+        }
+        try {
+            long start = EpochTimeFormat.parseIso(bytes, from, firstComma);
+            long end = EpochTimeFormat.parseIso(bytes, firstComma + 1, secondComma);
+            builder.addTimeSlice(start, end, parseValue(bytes, secondComma + 1, to));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Zeile " + lineNumber + " der CSV-Datei ist ungültig: " + e.getMessage(), e);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Einfache Dezimalzahlen mit bis zu 15 Ziffern werden exakt direkt berechnet, alles andere über Double.parseDouble
+    static double parseValue(byte[] bytes, int from, int to) {
+        int position = from;
+        boolean negative = position < to && bytes[position] == '-';
+        if (negative || position < to && bytes[position] == '+') {
+            position++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean digits = false;
+        boolean dot = false;
+        for (; position < to; position++) {
+            byte b = bytes[position];
+            if (b >= '0' && b <= '9') {
+                digits = true;
+                if (mantissa != 0 || b != '0') {
+                    significantDigits++;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (dot) {
+                    exponent--;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (position == to && digits && significantDigits <= 15 && -exponent < POWERS_OF_TEN.length) {
+            double value = exponent == 0 ? mantissa : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Wert", e);
+        }
+    }
+
+    // Ganze Zahlen wie 2.0 ohne Umweg über Double.toString, sonst dessen kürzeste exakte Darstellung
+    private static int writeValue(double value, byte[] bytes, int position) {
+        if (value == (long) value && Math.abs(value) < 1e7 && !(value == 0 && 1 / value < 0)) {
+            long integral = (long) value;
+            if (integral < 0) {
+                bytes[position++] = '-';
+                integral = -integral;
+            }
+            int digits = 1;
+            for (long rest = integral; rest >= 10; rest /= 10) {
+                digits++;
+            }
+            for (int i = position + digits - 1; i >= position; i--) {
+                bytes[i] = (byte) ('0' + integral % 10);
+                integral /= 10;
+            }
+            position += digits;
+            bytes[position++] = '.';
+            bytes[position++] = '0';
+            return position;
+        }
+        return writeAscii(Double.toString(value), bytes, position);
+    }
+
+    private static int writeAscii(String text, byte[] bytes, int position) {
+        for (int i = 0; i < text.length(); i++) {
+            bytes[position++] = (byte) text.charAt(i);
+        }
+        return position;
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer, int limit) throws IOException {
+        buffer.position(0).limit(limit);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,126 @@
+package com.matthiast.timeseries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binäres Dateiformat für Zeitreihen. Auf einen Kopf mit Kennung, Version, Start- und Enddatum sowie
+ * der Anzahl Zeitscheiben folgen drei Spalten fester Breite: Startzeiten, Endzeiten (jeweils
+ * Millisekunden seit 1970, UTC) und Werte. Alle Zahlen werden little-endian abgelegt.
+ * Komprimierte Zeitreihen ({@link CompressedTimeSeries}) haben eine eigene Kennung; auf den Kopf
+ * folgen die Block-Tabellen und der Bitstrom.
+ */
+public final class TimeSeriesFile {
+
+    static final int MAGIC = 0x54534552;
+    static final int COMPRESSED_MAGIC = 0x54534543;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private TimeSeriesFile() {
+    }
+
+    public static void write(TimeSeries timeSeries, Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BYTE_ORDER);
+            int size = timeSeries.size();
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(EpochTime.toEpochMillis(timeSeries.getStartDate()))
+                    .putLong(EpochTime.toEpochMillis(timeSeries.getEndDate()))
+                    .putLong(size);
+
+            for (int i = 0; i < size; i++) {
+                flushIfFull(channel, buffer);
+                buffer.putLong(timeSeries.startTimeAt(i));
+            }
+            for (int i = 0; i < size; i++) {
+                flushIfFull(channel, buffer);
+                buffer.putLong(timeSeries.endTimeAt(i));
+            }
+            for (int i = 0; i < size; i++) {
+                flushIfFull(channel, buffer);
+                buffer.putDouble(timeSeries.valueAt(i));
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    public static void writeCompressed(CompressedTimeSeries timeSeries, Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BYTE_ORDER);
+            long[] words = timeSeries.words();
+            buffer.putInt(COMPRESSED_MAGIC)
+                    .putInt(VERSION)
+                    .putLong(EpochTime.toEpochMillis(timeSeries.getStartDate()))
+                    .putLong(EpochTime.toEpochMillis(timeSeries.getEndDate()))
+                    .putLong(timeSeries.size())
+                    .putLong(words.length);
+            for (long[] column : new long[][]{timeSeries.blockFirstStarts(), timeSeries.blockLastEnds(), timeSeries.blockBitOffsets(), words}) {
+                for (long value : column) {
+                    flushIfFull(channel, buffer);
+                    buffer.putLong(value);
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    // Komprimierte Zeitreihen sind klein genug, um vollständig auf den Heap geladen zu werden
+    public static CompressedTimeSeries readCompressed(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE + Long.BYTES) {
+                throw new IOException("Keine komprimierte Zeitreihen-Datei: " + path);
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(BYTE_ORDER);
+            if (buffer.getInt() != COMPRESSED_MAGIC) {
+                throw new IOException("Keine komprimierte Zeitreihen-Datei: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Nicht unterstützte Version " + version + " der Zeitreihen-Datei: " + path);
+            }
+            var startDate = EpochTime.toLocalDateTime(buffer.getLong());
+            var endDate = EpochTime.toLocalDateTime(buffer.getLong());
+            long size = buffer.getLong();
+            long wordCount = buffer.getLong();
+            long blocks = (size + CompressedTimeSeries.BLOCK_SIZE - 1) / CompressedTimeSeries.BLOCK_SIZE;
+            if (size < 0 || size > Integer.MAX_VALUE || wordCount < 0 || (3 * blocks + wordCount) * Long.BYTES != buffer.remaining()) {
+                throw new IOException("Zeitreihen-Datei ist beschädigt: " + path);
+            }
+            var longs = buffer.asLongBuffer();
+            var blockFirstStarts = new long[(int) blocks];
+            var blockLastEnds = new long[(int) blocks];
+            var blockBitOffsets = new long[(int) blocks];
+            var words = new long[(int) wordCount];
+            longs.get(blockFirstStarts).get(blockLastEnds).get(blockBitOffsets).get(words);
+            return new CompressedTimeSeries(startDate, endDate, (int) size, blockFirstStarts, blockLastEnds, blockBitOffsets, words);
+        }
+    }
+
+    public static MappedTimeSeries map(Path path) throws IOException {
+        return MappedTimeSeries.open(path);
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < Long.BYTES) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,8 @@
+package com.matthiast.timeseries;
+
+// Wird nach jeder Änderung einer Zeitreihe mit dem betroffenen Zeitraum [startTime, endTime) in Epoch-Millisekunden aufgerufen
+@FunctionalInterface
+public interface TimeSeriesListener {
+
+    void timeSlicesChanged(TimeSeries timeSeries, long startTime, long endTime);
+}
@@ -0,0 +1,154 @@
+package com.matthiast.timeseries;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zähler und Latenz-Histogramme für die Kernoperationen, standardmäßig ausgeschaltet. Solange die
+ * Messung aus ist, kostet jede instrumentierte Stelle nur das Lesen eines volatile-Felds. Eingeschaltet
+ * wird über {@link #setEnabled(boolean)} oder per JMX nach {@link #registerMBean()}.
+ */
+public final class TimeSeriesMetrics implements TimeSeriesMetricsMBean {
+
+    public static final String OBJECT_NAME = "com.matthiast.timeseries:type=TimeSeriesMetrics";
+
+    private static final TimeSeriesMetrics INSTANCE = new TimeSeriesMetrics();
+
+    private static volatile boolean enabled;
+
+    private final LongAdder valueLookups = new LongAdder();
+    private final LongAdder scannedSlices = new LongAdder();
+    private final LongAdder overlapRejections = new LongAdder();
+    private final LatencyHistogram addTimeSeries = new LatencyHistogram();
+    private final LatencyHistogram subtractTimeSeries = new LatencyHistogram();
+
+    private TimeSeriesMetrics() {
+    }
+
+    public static TimeSeriesMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Bereits registriert
+        } catch (JMException e) {
+            throw new IllegalStateException("Die Metriken konnten nicht bei JMX registriert werden", e);
+        }
+    }
+
+    // Startzeitpunkt für recordAdd/recordSubtract; 0, solange die Messung aus ist
+    static long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    static void recordAddTimeSeries(long startNanos) {
+        if (startNanos != 0) {
+            INSTANCE.addTimeSeries.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    static void recordSubtractTimeSeries(long startNanos) {
+        if (startNanos != 0) {
+            INSTANCE.subtractTimeSeries.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    static void recordValueLookup() {
+        if (enabled) {
+            INSTANCE.valueLookups.increment();
+        }
+    }
+
+    // Nur tatsächlich linear durchlaufene Zeitscheiben, keine Schritte einer Binärsuche
+    static void recordScannedSlices(int count) {
+        if (enabled) {
+            INSTANCE.scannedSlices.add(count);
+        }
+    }
+
+    static void recordOverlapRejection() {
+        if (enabled) {
+            INSTANCE.overlapRejections.increment();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        TimeSeriesMetrics.enabled = enabled;
+    }
+
+    @Override
+    public long getValueLookupCount() {
+        return valueLookups.sum();
+    }
+
+    @Override
+    public long getScannedSliceCount() {
+        return scannedSlices.sum();
+    }
+
+    @Override
+    public long getOverlapRejectionCount() {
+        return overlapRejections.sum();
+    }
+
+    @Override
+    public long getAddTimeSeriesCount() {
+        return addTimeSeries.count();
+    }
+
+    @Override
+    public long getAddTimeSeriesMeanNanos() {
+        return addTimeSeries.meanNanos();
+    }
+
+    @Override
+    public long getAddTimeSeries99thPercentileNanos() {
+        return addTimeSeries.percentileNanos(0.99);
+    }
+
+    @Override
+    public long getAddTimeSeriesMaxNanos() {
+        return addTimeSeries.maxNanos();
+    }
+
+    @Override
+    public long getSubtractTimeSeriesCount() {
+        return subtractTimeSeries.count();
+    }
+
+    @Override
+    public long getSubtractTimeSeriesMeanNanos() {
+        return subtractTimeSeries.meanNanos();
+    }
+
+    @Override
+    public long getSubtractTimeSeries99thPercentileNanos() {
+        return subtractTimeSeries.percentileNanos(0.99);
+    }
+
+    @Override
+    public long getSubtractTimeSeriesMaxNanos() {
+        return subtractTimeSeries.maxNanos();
+    }
+
+    @Override
+    public void reset() {
+        valueLookups.reset();
+        scannedSlices.reset();
+        overlapRejections.reset();
+        addTimeSeries.reset();
+        subtractTimeSeries.reset();
+    }
+}
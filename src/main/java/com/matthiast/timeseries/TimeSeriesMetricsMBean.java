@@ -0,0 +1,33 @@
+package com.matthiast.timeseries;
+
+// JMX-Sicht auf TimeSeriesMetrics; Zeiten in Nanosekunden
+public interface TimeSeriesMetricsMBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getValueLookupCount();
+
+    long getScannedSliceCount();
+
+    long getOverlapRejectionCount();
+
+    long getAddTimeSeriesCount();
+
+    long getAddTimeSeriesMeanNanos();
+
+    long getAddTimeSeries99thPercentileNanos();
+
+    long getAddTimeSeriesMaxNanos();
+
+    long getSubtractTimeSeriesCount();
+
+    long getSubtractTimeSeriesMeanNanos();
+
+    long getSubtractTimeSeries99thPercentileNanos();
+
+    long getSubtractTimeSeriesMaxNanos();
+
+    void reset();
+}
@@ -1,23 +1,31 @@
 package com.matthiast.timeseries;
 
-import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
-
 public class TimeSeriesPrinter {
 
-    public void printTimeSeries(TimeSeries timeSeries) {
-        var formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
-        var startDate = timeSeries.getStartDate();
-        var endDate = timeSeries.getEndDate();
-        var timeSlices = timeSeries.getTimeSlices();
+    // Puffergröße, ab der die gesammelten Zeilen ausgegeben werden
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
 
-        timeSlices.sort(Comparator.comparing(TimeSlice::startTime));
+    public void printTimeSeries(TimeSeries timeSeries) {
+        var lineSeparator = System.lineSeparator();
+        var output = new StringBuilder(FLUSH_THRESHOLD + 128);
 
-        System.out.println("Zeitreihe von " + startDate.format(formatter) + " bis " + endDate.format(formatter));
-        for (TimeSlice slice : timeSlices) {
-            System.out.println("Startdatum: " + slice.startTime().format(formatter) +
-                    ", Enddatum: " + slice.endTime().format(formatter) +
-                    ", Wert: " + slice.value());
+        output.append("Zeitreihe von ");
+        EpochTimeFormat.formatGerman(EpochTime.toEpochMillis(timeSeries.getStartDate()), output);
+        output.append(" bis ");
+        EpochTimeFormat.formatGerman(EpochTime.toEpochMillis(timeSeries.getEndDate()), output);
+        output.append(lineSeparator);
+        // Blockweise ausgeben statt einer println-Zeile je Zeitscheibe, ohne die ganze Ausgabe im Speicher zu halten
+        for (int i = 0; i < timeSeries.size(); i++) {
+            output.append("Startdatum: ");
+            EpochTimeFormat.formatGerman(timeSeries.startTimeAt(i), output);
+            output.append(", Enddatum: ");
+            EpochTimeFormat.formatGerman(timeSeries.endTimeAt(i), output);
+            output.append(", Wert: ").append(timeSeries.valueAt(i)).append(lineSeparator);
+            if (output.length() >= FLUSH_THRESHOLD) {
+                System.out.print(output);
+                output.setLength(0);
+            }
         }
+        System.out.print(output);
     }
 }
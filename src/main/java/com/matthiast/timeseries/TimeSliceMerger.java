@@ -0,0 +1,143 @@
+package com.matthiast.timeseries;
+
+import java.time.LocalDateTime;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Kombiniert zwei sortierte Zeitscheiben-Folgen in einem einzigen Durchlauf.
+ * Abschnitte, die nur von einer Folge abgedeckt werden, werden über {@code onlyFirst} bzw.
+ * {@code onlySecond} abgebildet; ist dieser Operator {@code null}, entfällt der Abschnitt.
+ */
+final class TimeSliceMerger {
+
+    private final DoubleBinaryOperator combined;
+    private final DoubleUnaryOperator onlyFirst;
+    private final DoubleUnaryOperator onlySecond;
+
+    TimeSliceMerger(DoubleBinaryOperator combined, DoubleUnaryOperator onlyFirst, DoubleUnaryOperator onlySecond) {
+        this.combined = combined;
+        this.onlyFirst = onlyFirst;
+        this.onlySecond = onlySecond;
+    }
+
+    TimeSeries merge(TimeSeries first, TimeSeries second) {
+        var result = new TimeSeries(calculateCombinedStart(first, second), calculateCombinedEnd(first, second));
+        var cursor = merge(first.cursor(), second.cursor());
+        while (cursor.next()) {
+            result.append(cursor.startTime(), cursor.endTime(), cursor.value());
+        }
+        return result;
+    }
+
+    // Liefert die kombinierten Abschnitte erst beim Abruf; gleiche Nachbarn werden dabei zusammengefasst
+    SliceCursor merge(SliceCursor first, SliceCursor second) {
+        return new JoiningCursor(new SweepCursor(first, second));
+    }
+
+    static LocalDateTime calculateCombinedEnd(TimeSeries first, TimeSeries second) {
+        return first.getEndDate().isAfter(second.getEndDate()) ? first.getEndDate() : second.getEndDate();
+    }
+
+    static LocalDateTime calculateCombinedStart(TimeSeries first, TimeSeries second) {
+        return first.getStartDate().isBefore(second.getStartDate()) ? first.getStartDate() : second.getStartDate();
+    }
+
+    private final class SweepCursor implements SliceCursor {
+        private final SliceCursor first;
+        private final SliceCursor second;
+        private boolean hasA;
+        private boolean hasB;
+        private long aStart;
+        private long bStart;
+        private long startTime;
+        private long endTime;
+        private double value;
+
+        private SweepCursor(SliceCursor first, SliceCursor second) {
+            this.first = first;
+            this.second = second;
+            this.hasA = first.next();
+            this.hasB = second.next();
+            this.aStart = hasA ? first.startTime() : 0;
+            this.bStart = hasB ? second.startTime() : 0;
+        }
+
+        @Override
+        public boolean next() {
+            while (hasA || hasB) {
+                if (!hasB || hasA && aStart < bStart) {
+                    long aEnd = first.endTime();
+                    long end = hasB && bStart < aEnd ? bStart : aEnd;
+                    boolean emit = onlyFirst != null;
+                    if (emit) {
+                        set(aStart, end, onlyFirst.applyAsDouble(first.value()));
+                    }
+                    advanceFirst(end, aEnd);
+                    if (emit) {
+                        return true;
+                    }
+                } else if (!hasA || bStart < aStart) {
+                    long bEnd = second.endTime();
+                    long end = hasA && aStart < bEnd ? aStart : bEnd;
+                    boolean emit = onlySecond != null;
+                    if (emit) {
+                        set(bStart, end, onlySecond.applyAsDouble(second.value()));
+                    }
+                    advanceSecond(end, bEnd);
+                    if (emit) {
+                        return true;
+                    }
+                } else {
+                    long aEnd = first.endTime();
+                    long bEnd = second.endTime();
+                    long end = Math.min(aEnd, bEnd);
+                    set(aStart, end, combined.applyAsDouble(first.value(), second.value()));
+                    advanceFirst(end, aEnd);
+                    advanceSecond(end, bEnd);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void set(long startTime, long endTime, double value) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.value = value;
+        }
+
+        private void advanceFirst(long end, long aEnd) {
+            if (end == aEnd) {
+                hasA = first.next();
+                aStart = hasA ? first.startTime() : 0;
+            } else {
+                aStart = end;
+            }
+        }
+
+        private void advanceSecond(long end, long bEnd) {
+            if (end == bEnd) {
+                hasB = second.next();
+                bStart = hasB ? second.startTime() : 0;
+            } else {
+                bStart = end;
+            }
+        }
+
+        @Override
+        public long startTime() {
+            return startTime;
+        }
+
+        @Override
+        public long endTime() {
+            return endTime;
+        }
+
+        @Override
+        public double value() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedTimeSeriesTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2024, Month.JANUARY, 1, 0, 0);
+
+    @Test
+    public void testRoundTripOfIrregularSeries() {
+        var random = new SplittableRandom(7);
+        var builder = TimeSeries.builder(TIME_SERIES_START, TIME_SERIES_START.plusYears(30));
+        var start = TIME_SERIES_START;
+        for (int i = 0; i < 5000; i++) {
+            var end = start.plusSeconds(1 + random.nextInt(4000)).plusNanos(random.nextInt(1000) * 1_000_000L);
+            double value = switch (i % 4) {
+                case 0 -> random.nextDouble() * 1e6;
+                case 1 -> -random.nextDouble();
+                case 2 -> Double.NaN;
+                default -> 42.0;
+            };
+            builder.addTimeSlice(new TimeSlice(start, end, value));
+            start = random.nextBoolean() ? end : end.plusDays(random.nextInt(3)).plusMinutes(random.nextInt(200));
+        }
+        var timeSeries = builder.build();
+
+        var compressed = CompressedTimeSeries.compress(timeSeries);
+
+        assertEquals(timeSeries.getTimeSlices(), compressed.decompress().getTimeSlices());
+        for (int i = 0; i < 5000; i += 37) {
+            var time = TIME_SERIES_START.plusMinutes(i * 31L).plusSeconds(17);
+            var endTime = time.plusHours(i % 50);
+            assertEquals(timeSeries.getValueAtTime(time), compressed.getValueAtTime(time), 0.0);
+            assertEquals(timeSeries.getMinValue(time, endTime), compressed.getMinValue(time, endTime), 0.0);
+            assertEquals(timeSeries.getMaxValue(time, endTime), compressed.getMaxValue(time, endTime), 0.0);
+            assertEquals(timeSeries.getAverageValue(time, endTime), compressed.getAverageValue(time, endTime), 0.0);
+        }
+    }
+
+    @Test
+    public void testRegularMeterSeriesCompressesTenfold() {
+        var builder = TimeSeries.builder(TIME_SERIES_START, TIME_SERIES_END);
+        for (int quarter = 0; quarter < 35_040; quarter++) {
+            var start = TIME_SERIES_START.plusMinutes(15L * quarter);
+            builder.addTimeSlice(new TimeSlice(start, start.plusMinutes(15), quarter / 96 % 7 == 0 ? 1.25 : 0.5));
+        }
+        var timeSeries = builder.build();
+
+        var compressed = CompressedTimeSeries.compress(timeSeries);
+
+        long uncompressedSize = 24L * timeSeries.getTimeSlices().size();
+        assertTrue(compressed.getCompressedSizeInBytes() * 10 <= uncompressedSize);
+        var sum = new TimeSeriesAdder().add(compressed.cursor(), compressed.cursor());
+        var expected = new TimeSeriesAdder().addTimeSeries(timeSeries, timeSeries);
+        assertEquals(expected.getTimeSlices(), SliceCursors.toTimeSeries(sum, TIME_SERIES_START, TIME_SERIES_END).getTimeSlices());
+    }
+}
@@ -0,0 +1,118 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTimeSeriesTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2023, Month.FEBRUARY, 1, 0, 0);
+
+    @Test
+    public void testParallelIngestPerDayMatchesTimeSeries() throws Exception {
+        var concurrent = new ConcurrentTimeSeries(TIME_SERIES_START, TIME_SERIES_END, Duration.ofDays(1));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int day = 0; day < 31; day++) {
+                var dayStart = TIME_SERIES_START.plusDays(day);
+                futures.add(executor.submit(() -> {
+                    for (int quarter = 95; quarter >= 0; quarter--) {
+                        var start = dayStart.plusMinutes(15L * quarter);
+                        concurrent.addTimeSlice(new TimeSlice(start, start.plusMinutes(15), quarter));
+                        concurrent.getMaxValue(TIME_SERIES_START, TIME_SERIES_END);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var snapshot = concurrent.snapshot();
+        assertEquals(31 * 96, snapshot.getTimeSlices().size());
+        var time = TIME_SERIES_START.plusDays(3).plusMinutes(20);
+        assertEquals(1.0, concurrent.getValueAtTime(time), 0.0);
+        assertEquals(snapshot.getValueAtTime(time), concurrent.getValueAtTime(time), 0.0);
+        assertEquals(snapshot.getAverageValue(time, time.plusHours(30)), concurrent.getAverageValue(time, time.plusHours(30)), 1e-12);
+        assertEquals(snapshot.getMinValue(time, time.plusHours(30)), concurrent.getMinValue(time, time.plusHours(30)), 0.0);
+        assertEquals(95.0, concurrent.getMaxValue(TIME_SERIES_START, TIME_SERIES_END), 0.0);
+    }
+
+    @Test
+    public void testSliceSpanningSegmentsIsFoundAndBlocksOverlaps() {
+        var concurrent = new ConcurrentTimeSeries(TIME_SERIES_START, TIME_SERIES_END, Duration.ofDays(1));
+        concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(20), TIME_SERIES_START.plusDays(3), 7.0));
+
+        assertEquals(7.0, concurrent.getValueAtTime(TIME_SERIES_START.plusDays(2)), 0.0);
+        assertEquals(7.0, concurrent.getMaxValue(TIME_SERIES_START.plusDays(2), TIME_SERIES_START.plusDays(2).plusHours(1)), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(1), TIME_SERIES_START.plusDays(1).plusHours(1), 1.0)));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusHours(21), 1.0)));
+        assertDoesNotThrow(() -> concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(3), TIME_SERIES_START.plusDays(4), 1.0)));
+    }
+
+    @Test
+    public void testOnlySegmentsWithSlicesAreCreated() {
+        var concurrent = new ConcurrentTimeSeries(TIME_SERIES_START, TIME_SERIES_END, Duration.ofHours(1));
+        concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(2), TIME_SERIES_START.plusDays(20), 7.0));
+        assertEquals(1, concurrent.segmentCount());
+
+        assertThrows(IllegalArgumentException.class, () -> concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(25), 1.0)));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(5), TIME_SERIES_START.plusDays(6), 1.0)));
+        assertEquals(1, concurrent.segmentCount());
+
+        concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(25), TIME_SERIES_START.plusDays(26), 3.0));
+        assertEquals(2, concurrent.segmentCount());
+        assertEquals(7.0, concurrent.getValueAtTime(TIME_SERIES_START.plusDays(19)), 0.0);
+        assertEquals(5.0, concurrent.getAverageValue(TIME_SERIES_START.plusDays(10), TIME_SERIES_END), 0.0);
+    }
+
+    @Test
+    public void testLongSliceWithTinySegments() {
+        var concurrent = new ConcurrentTimeSeries(TIME_SERIES_START, TIME_SERIES_END, Duration.ofMillis(1));
+        concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(30), 2.0));
+
+        assertThrows(IllegalArgumentException.class, () -> concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(29), TIME_SERIES_START.plusDays(31), 1.0)));
+        concurrent.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(30), TIME_SERIES_START.plusDays(31), 1.0));
+        assertEquals(2, concurrent.segmentCount());
+        assertEquals(2.0, concurrent.getValueAtTime(TIME_SERIES_START.plusDays(15)), 0.0);
+        assertEquals(1.0, concurrent.getMinValue(TIME_SERIES_START, TIME_SERIES_END), 0.0);
+    }
+
+    @Test
+    public void testTimeFrameCheckMatchesTimeSeries() {
+        var candidates = new TimeSlice[]{
+                new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(1), 1.0),
+                new TimeSlice(TIME_SERIES_START.minusDays(2), TIME_SERIES_START.minusDays(1), 1.0),
+                new TimeSlice(TIME_SERIES_END.minusDays(1), TIME_SERIES_END, 1.0),
+                new TimeSlice(TIME_SERIES_END.minusDays(1), TIME_SERIES_END.plusDays(1), 1.0),
+                new TimeSlice(TIME_SERIES_END, TIME_SERIES_END.plusDays(1), 1.0)
+        };
+        for (TimeSlice timeSlice : candidates) {
+            var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+            var concurrent = new ConcurrentTimeSeries(TIME_SERIES_START, TIME_SERIES_END, Duration.ofDays(1));
+            boolean accepted = isAccepted(() -> timeSeries.addTimeSlice(timeSlice));
+
+            assertEquals(accepted, isAccepted(() -> concurrent.addTimeSlice(timeSlice)), timeSlice.toString());
+        }
+    }
+
+    private static boolean isAccepted(Runnable addition) {
+        try {
+            addition.run();
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
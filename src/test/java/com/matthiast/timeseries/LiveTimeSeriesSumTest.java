@@ -0,0 +1,63 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveTimeSeriesSumTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2023, Month.FEBRUARY, 1, 0, 0);
+
+    @Test
+    public void testUpdatesMatchFullRecomputation() {
+        var random = new Random(42);
+        var sources = new ArrayList<TimeSeries>();
+        for (int s = 0; s < 5; s++) {
+            var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+            for (int hour = s; hour < 24 * 30; hour += 3) {
+                timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(hour), TIME_SERIES_START.plusHours(hour + 2), random.nextInt(3)));
+            }
+            sources.add(timeSeries);
+        }
+
+        try (var liveSum = new LiveTimeSeriesSum(sources)) {
+            assertSameSlices(new TimeSeriesAdder().addAll(sources), liveSum.snapshot());
+            for (int update = 0; update < 200; update++) {
+                var source = sources.get(random.nextInt(sources.size()));
+                var start = TIME_SERIES_START.plusHours(random.nextInt(24 * 30));
+                if (random.nextBoolean()) {
+                    source.removeTimeSlice(start, start.plusHours(random.nextInt(4)));
+                } else if (Double.isNaN(source.getValueAtTime(start.plusMinutes(30))) && Double.isNaN(source.getValueAtTime(start.plusMinutes(59)))) {
+                    try {
+                        source.addTimeSlice(new TimeSlice(start, start.plusHours(1), random.nextInt(3)));
+                    } catch (IllegalArgumentException e) {
+                        // Überlappung, Quelle unverändert
+                    }
+                }
+                assertSameSlices(new TimeSeriesAdder().addAll(sources), liveSum.snapshot());
+            }
+        }
+    }
+
+    @Test
+    public void testClosedSumNoLongerFollowsSources() {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(1), 1.0));
+        var liveSum = new LiveTimeSeriesSum(List.of(timeSeries, timeSeries));
+        assertEquals(2.0, liveSum.getValueAtTime(TIME_SERIES_START.plusHours(1)), 0.0);
+
+        liveSum.close();
+        timeSeries.removeTimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(1));
+        assertEquals(2.0, liveSum.getValueAtTime(TIME_SERIES_START.plusHours(1)), 0.0);
+    }
+
+    private static void assertSameSlices(TimeSeries expected, TimeSeries actual) {
+        assertEquals(expected.getTimeSlices(), actual.getTimeSlices());
+    }
+}
@@ -0,0 +1,174 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedTimeSeriesTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2020, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2022, Month.JANUARY, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRangeQueriesMatchTimeSeries() {
+        var partitioned = new PartitionedTimeSeries(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS);
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        fill(partitioned, timeSeries);
+
+        var from = TIME_SERIES_START.plusDays(17).plusHours(5);
+        var to = TIME_SERIES_START.plusMonths(14).plusDays(3).plusMinutes(30);
+        assertEquals(timeSeries.getMinValue(from, to), partitioned.getMinValue(from, to), 0.0);
+        assertEquals(timeSeries.getMaxValue(from, to), partitioned.getMaxValue(from, to), 0.0);
+        assertEquals(timeSeries.getAverageValue(from, to), partitioned.getAverageValue(from, to), 1e-9);
+        // Bereich genau auf Partitionsgrenzen
+        var month = TIME_SERIES_START.plusMonths(3);
+        assertEquals(timeSeries.getAverageValue(month, month.plusMonths(2)), partitioned.getAverageValue(month, month.plusMonths(2)), 1e-9);
+        var time = TIME_SERIES_START.plusMonths(5).plusHours(1).plusMinutes(10);
+        assertEquals(timeSeries.getValueAtTime(time), partitioned.getValueAtTime(time), 0.0);
+        assertEquals(timeSeries.getTimeSlices().size(), partitioned.toTimeSeries().getTimeSlices().size());
+    }
+
+    @Test
+    public void testSliceSpanningPartitionsIsFoundAndBlocksOverlaps() {
+        var partitioned = new PartitionedTimeSeries(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS);
+        partitioned.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(20), TIME_SERIES_START.plusMonths(3), 7.0));
+
+        assertEquals(7.0, partitioned.getValueAtTime(TIME_SERIES_START.plusMonths(2)), 0.0);
+        assertEquals(7.0, partitioned.getMaxValue(TIME_SERIES_START.plusMonths(2), TIME_SERIES_START.plusMonths(2).plusDays(1)), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> partitioned.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusMonths(1), TIME_SERIES_START.plusMonths(1).plusDays(1), 1.0)));
+        assertThrows(IllegalArgumentException.class, () -> partitioned.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(21), 1.0)));
+    }
+
+    @Test
+    public void testEvictedPartitionsAreReloadedFromStore() {
+        var store = new FilePartitionStore(directory);
+        var partitioned = new PartitionedTimeSeries(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS, store, 2);
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        fill(partitioned, timeSeries);
+        assertEquals(2, partitioned.getLoadedPartitionCount());
+
+        var from = TIME_SERIES_START.plusDays(40);
+        var to = TIME_SERIES_START.plusMonths(20).plusDays(2);
+        assertEquals(timeSeries.getMaxValue(from, to), partitioned.getMaxValue(from, to), 0.0);
+        partitioned.evictAll();
+        assertEquals(0, partitioned.getLoadedPartitionCount());
+
+        var reopened = PartitionedTimeSeries.open(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS, store, 2);
+        assertEquals(0, reopened.getLoadedPartitionCount());
+        assertEquals(timeSeries.getAverageValue(from, to), reopened.getAverageValue(from, to), 1e-9);
+        assertEquals(timeSeries.getTimeSlices().size(), reopened.size());
+        assertTrue(reopened.getLoadedPartitionCount() <= 2);
+    }
+
+    @Test
+    public void testOpenReadsOnlySummaries() throws IOException {
+        var fileStore = new FilePartitionStore(directory);
+        var partitioned = new PartitionedTimeSeries(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS, fileStore, 2);
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        fill(partitioned, timeSeries);
+        partitioned.evictAll();
+        var loads = new AtomicInteger();
+        var store = new PartitionStore() {
+            @Override
+            public SortedMap<Long, PartitionSummary> summaries() throws IOException {
+                return fileStore.summaries();
+            }
+
+            @Override
+            public void save(long partition, TimeSeries data, PartitionSummary summary) throws IOException {
+                fileStore.save(partition, data, summary);
+            }
+
+            @Override
+            public TimeSeries load(long partition) throws IOException {
+                loads.incrementAndGet();
+                return fileStore.load(partition);
+            }
+        };
+
+        var reopened = PartitionedTimeSeries.open(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS, store, 2);
+        assertEquals(0, loads.get());
+        assertEquals(timeSeries.getTimeSlices().size(), reopened.size());
+
+        // Ganze Monate kommen aus den Zusammenfassungen; nur die Randpartition wird geladen
+        var from = TIME_SERIES_START.plusMonths(2);
+        var to = TIME_SERIES_START.plusMonths(20).plusDays(4);
+        assertEquals(timeSeries.getMaxValue(from, to), reopened.getMaxValue(from, to), 0.0);
+        assertEquals(timeSeries.getAverageValue(from, to), reopened.getAverageValue(from, to), 1e-9);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testRejectedSliceCreatesNoPartition() {
+        var partitioned = new PartitionedTimeSeries(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS);
+        partitioned.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(1), 1.0));
+
+        assertThrows(IllegalArgumentException.class, () -> partitioned.addTimeSlice(new TimeSlice(TIME_SERIES_END.plusMonths(1), TIME_SERIES_END.plusMonths(2), 2.0)));
+        assertThrows(IllegalArgumentException.class, () -> partitioned.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(12), TIME_SERIES_START.plusDays(2), 2.0)));
+
+        assertEquals(1, partitioned.getLoadedPartitionCount());
+        assertEquals(1, partitioned.size());
+    }
+
+    @Test
+    public void testMonthEndStartUsesPartitionBoundaries() {
+        var start = LocalDateTime.of(2023, Month.JANUARY, 31, 0, 0);
+        var end = LocalDateTime.of(2023, Month.JUNE, 30, 0, 0);
+        var partitioned = new PartitionedTimeSeries(start, end, ChronoUnit.MONTHS);
+        var timeSeries = new TimeSeries(start, end);
+        // 31.01. plus 1 Monat ist der 28.02.; die zweite Zeitscheibe gehört schon zur zweiten Partition
+        var timeSlices = new TimeSlice[]{
+                new TimeSlice(LocalDateTime.of(2023, 2, 27, 10, 0), LocalDateTime.of(2023, 2, 27, 11, 0), 1.0),
+                new TimeSlice(LocalDateTime.of(2023, 2, 28, 10, 0), LocalDateTime.of(2023, 2, 28, 11, 0), 99.0),
+                new TimeSlice(LocalDateTime.of(2023, 3, 30, 10, 0), LocalDateTime.of(2023, 3, 31, 11, 0), 5.0)
+        };
+        for (TimeSlice timeSlice : timeSlices) {
+            partitioned.addTimeSlice(timeSlice);
+            timeSeries.addTimeSlice(timeSlice);
+        }
+
+        var february = LocalDateTime.of(2023, 2, 28, 0, 0);
+        assertEquals(1.0, partitioned.getMaxValue(start, february), 0.0);
+        assertEquals(timeSeries.getMaxValue(start, february), partitioned.getMaxValue(start, february), 0.0);
+        assertEquals(timeSeries.getAverageValue(february, LocalDateTime.of(2023, 3, 31, 0, 0)),
+                partitioned.getAverageValue(february, LocalDateTime.of(2023, 3, 31, 0, 0)), 0.0);
+        assertEquals(99.0, partitioned.getValueAtTime(LocalDateTime.of(2023, 2, 28, 10, 30)), 0.0);
+        assertEquals(5.0, partitioned.getValueAtTime(LocalDateTime.of(2023, 3, 31, 10, 30)), 0.0);
+        assertEquals(timeSeries.getTimeSlices(), partitioned.toTimeSeries().getTimeSlices());
+    }
+
+    @Test
+    public void testEvictionWithoutStoreIsRejected() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> new PartitionedTimeSeries(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS, null, 1));
+        assertEquals("Ohne PartitionStore können keine Partitionen verdrängt werden", exception.getMessage());
+
+        var partitioned = new PartitionedTimeSeries(TIME_SERIES_START, TIME_SERIES_END, ChronoUnit.MONTHS, null, Integer.MAX_VALUE);
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        fill(partitioned, timeSeries);
+        partitioned.evictAll();
+        assertEquals(timeSeries.getTimeSlices(), partitioned.toTimeSeries().getTimeSlices());
+    }
+
+    // Ein Tag mit vier Zeitscheiben alle drei Tage
+    private static void fill(PartitionedTimeSeries partitioned, TimeSeries timeSeries) {
+        for (var day = TIME_SERIES_START; day.isBefore(TIME_SERIES_END.minusDays(3)); day = day.plusDays(3)) {
+            for (int i = 0; i < 4; i++) {
+                var start = day.plusHours(6L * i);
+                var timeSlice = new TimeSlice(start, start.plusHours(6), (day.getDayOfYear() * 7 + i) % 23);
+                partitioned.addTimeSlice(timeSlice);
+                timeSeries.addTimeSlice(timeSlice);
+            }
+        }
+    }
+}
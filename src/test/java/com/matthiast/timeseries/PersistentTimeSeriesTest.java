@@ -0,0 +1,73 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentTimeSeriesTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2024, Month.JANUARY, 1, 0, 0);
+
+    @Test
+    public void testMatchesMutableTimeSeries() {
+        var random = new Random(11);
+        var expected = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        var persistent = PersistentTimeSeries.empty(TIME_SERIES_START, TIME_SERIES_END);
+        // Zufällige Reihenfolge, damit Blätter und innere Knoten an beliebigen Stellen geteilt werden
+        for (int i = 0; i < 20_000; i++) {
+            var start = TIME_SERIES_START.plusMinutes(20L * random.nextInt(26_000));
+            var timeSlice = new TimeSlice(start, start.plusMinutes(random.nextInt(4) == 0 ? 0 : 15), random.nextInt(100) - 50);
+            var current = persistent;
+            try {
+                expected.addTimeSlice(timeSlice);
+            } catch (IllegalArgumentException e) {
+                assertThrows(IllegalArgumentException.class, () -> current.addTimeSlice(timeSlice));
+                continue;
+            }
+            persistent = current.addTimeSlice(timeSlice);
+        }
+        for (int i = 0; i < 200; i++) {
+            var start = TIME_SERIES_START.plusMinutes(random.nextInt(500_000));
+            var end = start.plusMinutes(random.nextInt(5_000));
+            expected.removeTimeSlice(start, end);
+            persistent = persistent.removeTimeSlice(start, end);
+        }
+
+        assertEquals(expected.size(), persistent.size());
+        assertEquals(expected.getTimeSlices(), persistent.toTimeSeries().getTimeSlices());
+        for (int i = 0; i < 1000; i++) {
+            var start = TIME_SERIES_START.plusMinutes(random.nextInt(500_000));
+            var end = start.plusMinutes(random.nextInt(50_000));
+            assertEquals(expected.getValueAtTime(start), persistent.getValueAtTime(start), 0.0);
+            assertEquals(expected.getMinValue(start, end), persistent.getMinValue(start, end), 0.0);
+            assertEquals(expected.getMaxValue(start, end), persistent.getMaxValue(start, end), 0.0);
+            assertEquals(expected.getAverageValue(start, end), persistent.getAverageValue(start, end), 1e-9);
+        }
+    }
+
+    @Test
+    public void testOldVersionsStayUnchanged() {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        for (int hour = 0; hour < 5_000; hour++) {
+            timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(hour), TIME_SERIES_START.plusHours(hour + 1), hour % 24));
+        }
+        var original = PersistentTimeSeries.of(timeSeries);
+
+        var removed = original.removeTimeSlice(TIME_SERIES_START.plusHours(100), TIME_SERIES_START.plusHours(2_500));
+        var added = removed.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(200), TIME_SERIES_START.plusHours(300), 99.0));
+
+        assertEquals(timeSeries.getTimeSlices(), original.toTimeSeries().getTimeSlices());
+        assertEquals(2_600, removed.size());
+        assertEquals(2_601, added.size());
+        assertEquals(10.0, original.getValueAtTime(TIME_SERIES_START.plusMinutes(250 * 60 + 30)), 0.0);
+        assertTrue(Double.isNaN(removed.getValueAtTime(TIME_SERIES_START.plusMinutes(250 * 60 + 30))));
+        assertEquals(99.0, added.getMaxValue(TIME_SERIES_START, TIME_SERIES_END), 0.0);
+        assertEquals(23.0, removed.getMaxValue(TIME_SERIES_START, TIME_SERIES_END), 0.0);
+        assertThrows(IllegalArgumentException.class,
+                () -> original.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(200), TIME_SERIES_START.plusHours(300), 99.0)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSeriesCacheTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2023, Month.FEBRUARY, 1, 0, 0);
+
+    @Test
+    public void testRepeatedQueriesHitAndMutationInvalidates() {
+        var cache = new TimeSeriesCache(1 << 20);
+        var timeSeriesA = createTimeSeries(1.0);
+        var timeSeriesB = createTimeSeries(2.0);
+
+        var sum = cache.addTimeSeries(timeSeriesA, timeSeriesB);
+        assertSame(sum, cache.addTimeSeries(timeSeriesA, timeSeriesB));
+        assertTrue(sum.isImmutable());
+        assertEquals(16.5, cache.getAverageValue(sum, TIME_SERIES_START, TIME_SERIES_END), 0.0);
+        assertEquals(16.5, cache.getAverageValue(sum, TIME_SERIES_START, TIME_SERIES_END), 0.0);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        timeSeriesA.removeTimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(1));
+        var newSum = cache.addTimeSeries(timeSeriesA, timeSeriesB);
+        assertNotSame(sum, newSum);
+        assertEquals(2.0, newSum.getValueAtTime(TIME_SERIES_START.plusHours(12)), 0.0);
+        assertEquals(3, cache.getMissCount());
+
+        timeSeriesB.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(20), TIME_SERIES_START.plusDays(21), 50.0));
+        assertEquals(50.0, cache.getMaxValue(timeSeriesB, TIME_SERIES_START, TIME_SERIES_END), 0.0);
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedByWeight() {
+        var timeSeriesA = createTimeSeries(1.0);
+        var timeSeriesB = createTimeSeries(2.0);
+        // Platz für genau ein Ergebnis mit zehn Zeitscheiben
+        var cache = new TimeSeriesCache(128 + 24 * 10);
+
+        cache.addTimeSeries(timeSeriesA, timeSeriesB);
+        cache.subtractTimeSeries(timeSeriesA, timeSeriesB);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.getWeightInBytes() <= 128 + 24 * 10);
+
+        cache.subtractTimeSeries(timeSeriesA, timeSeriesB);
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testStaleEntryDoesNotKeepSourceAlive() throws InterruptedException {
+        var cache = new TimeSeriesCache(1 << 20);
+        var source = createTimeSeries(1.0);
+        assertEquals(10.0, cache.getMaxValue(source, TIME_SERIES_START, TIME_SERIES_END), 0.0);
+        source.removeTimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(1));
+        var reference = new WeakReference<>(source);
+        source = null;
+
+        for (int attempt = 0; attempt < 50 && reference.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(reference.get());
+        assertEquals(1, cache.size());
+    }
+
+    private static TimeSeries createTimeSeries(double value) {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        for (int day = 0; day < 10; day++) {
+            timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(day), TIME_SERIES_START.plusDays(day + 1), value * (day + 1)));
+        }
+        return timeSeries;
+    }
+}
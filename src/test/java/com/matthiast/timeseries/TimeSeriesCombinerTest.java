@@ -0,0 +1,85 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSeriesCombinerTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2023, Month.FEBRUARY, 1, 0, 0);
+
+    @Test
+    public void testAlignedFastPathMatchesSweep() {
+        var price = createQuarterHourSeries(0, 1.5);
+        var volume = createQuarterHourSeries(0, 2.0);
+
+        for (BinaryOperation operation : BinaryOperation.values()) {
+            var combiner = TimeSeriesCombiner.of(operation);
+            var expected = SliceCursors.toTimeSeries(combiner.combine(price.cursor(), volume.cursor()), TIME_SERIES_START, TIME_SERIES_END);
+
+            assertEquals(expected.getTimeSlices(), combiner.combine(price, volume).getTimeSlices(), operation.name());
+        }
+        var custom = new TimeSeriesCombiner((a, b) -> a * b + 1, null, null);
+        assertEquals(SliceCursors.toTimeSeries(custom.combine(price.cursor(), volume.cursor()), TIME_SERIES_START, TIME_SERIES_END).getTimeSlices(),
+                custom.combine(price, volume).getTimeSlices());
+    }
+
+    @Test
+    public void testOneSidedSectionsFollowOperation() {
+        var first = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        first.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(2), 6.0));
+        var second = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        second.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(1), TIME_SERIES_START.plusDays(3), 3.0));
+
+        var product = TimeSeriesCombiner.of(BinaryOperation.MULTIPLY).combine(first, second);
+        var ratio = TimeSeriesCombiner.of(BinaryOperation.DIVIDE).combine(first, second);
+        var minimum = TimeSeriesCombiner.of(BinaryOperation.MIN).combine(first, second);
+
+        assertEquals(1, product.getTimeSlices().size());
+        assertEquals(18.0, product.getValueAtTime(TIME_SERIES_START.plusHours(36)), 0.0);
+        assertEquals(2.0, ratio.getValueAtTime(TIME_SERIES_START.plusHours(36)), 0.0);
+        assertTrue(Double.isNaN(ratio.getValueAtTime(TIME_SERIES_START.plusHours(12))));
+        assertEquals(6.0, minimum.getValueAtTime(TIME_SERIES_START.plusHours(12)), 0.0);
+        assertEquals(3.0, minimum.getValueAtTime(TIME_SERIES_START.plusHours(36)), 0.0);
+        assertEquals(3.0, minimum.getValueAtTime(TIME_SERIES_START.plusHours(60)), 0.0);
+    }
+
+    @Test
+    public void testParallelCombineMatchesSequential() {
+        var random = new Random(3);
+        var first = createRandomSeries(random);
+        var second = createRandomSeries(random);
+
+        for (BinaryOperation operation : BinaryOperation.values()) {
+            var combiner = TimeSeriesCombiner.of(operation);
+
+            assertEquals(combiner.combine(first, second).getTimeSlices(), combiner.combineParallel(first, second, 100).getTimeSlices(), operation.name());
+        }
+        assertEquals(new TimeSeriesAdder().addTimeSeries(first, second).getTimeSlices(), new TimeSeriesAdder().addTimeSeriesParallel(first, second).getTimeSlices());
+    }
+
+    // Unregelmäßige Zeitscheiben mit Lücken, gleichen Nachbarwerten und Zeitscheiben ohne Dauer
+    private static TimeSeries createRandomSeries(Random random) {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        var start = TIME_SERIES_START;
+        for (int i = 0; i < 2000; i++) {
+            var end = start.plusMinutes(random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(30));
+            timeSeries.addTimeSlice(new TimeSlice(start, end, random.nextInt(4)));
+            start = end.plusMinutes(random.nextInt(3) == 0 ? random.nextInt(20) : 0);
+        }
+        return timeSeries;
+    }
+
+    private static TimeSeries createQuarterHourSeries(int offset, double factor) {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        for (int quarter = 0; quarter < 96 * 30; quarter++) {
+            var start = TIME_SERIES_START.plusMinutes(15L * quarter);
+            timeSeries.addTimeSlice(new TimeSlice(start, start.plusMinutes(15), factor * ((quarter + offset) % 17 - 8)));
+        }
+        return timeSeries;
+    }
+}
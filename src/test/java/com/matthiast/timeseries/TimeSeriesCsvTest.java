@@ -0,0 +1,91 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSeriesCsvTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2024, Month.JANUARY, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWriteAndReadRoundTrip() throws IOException {
+        double[] values = {2.0, -3.0, 0.1, -0.0, 123.456, 1e-5, 1.2345678901234567e20, Double.NaN, Double.POSITIVE_INFINITY, 42};
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        for (int i = 0; i < 20_000; i++) {
+            var start = TIME_SERIES_START.plusMinutes(15L * i).plusNanos(i % 7 * 1_000_000L);
+            timeSeries.addTimeSlice(new TimeSlice(start, start.plusMinutes(10), values[i % values.length] * (i % 3 + 1)));
+        }
+        var path = directory.resolve("series.csv");
+
+        TimeSeriesCsv.write(timeSeries, path);
+        var read = TimeSeriesCsv.read(path, TIME_SERIES_START, TIME_SERIES_END);
+
+        assertEquals(timeSeries.getTimeSlices(), read.getTimeSlices());
+        assertTrue(Files.readString(path).startsWith("startTime,endTime,value\n2023-01-01T00:00:00,2023-01-01T00:10:00,2.0\n"));
+    }
+
+    @Test
+    public void testWriteCursorWithMillisecondsAndExponent() throws IOException {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusNanos(5_000_000), TIME_SERIES_START.plusDays(59), 1e10));
+        var output = new ByteArrayOutputStream();
+
+        TimeSeriesCsv.write(timeSeries.cursor(), Channels.newChannel(output));
+
+        assertEquals("startTime,endTime,value\n2023-01-01T00:00:00.005,2023-03-01T00:00:00,1.0E10\n", output.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testReadAcceptsCrLfAndShortTimestamps() throws IOException {
+        var csv = "startTime,endTime,value\r\n2023-01-03 00:00,2023-01-05T00:00:00.5Z,2.5\r\n\r\n2023-01-06T00:00,2023-01-07T00:00,-1";
+
+        var timeSeries = TimeSeriesCsv.read(Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.US_ASCII))), TIME_SERIES_START, TIME_SERIES_END);
+
+        assertEquals(2, timeSeries.getTimeSlices().size());
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 3, 0, 0), LocalDateTime.of(2023, 1, 5, 0, 0, 0, 500_000_000), 2.5), timeSeries.getTimeSlices().get(0));
+        assertEquals(-1.0, timeSeries.getTimeSlices().get(1).value(), 0.0);
+    }
+
+    @Test
+    public void testReadReportsInvalidLine() throws IOException {
+        var path = directory.resolve("invalid.csv");
+        Files.writeString(path, "2023-01-03T00:00,2023-01-05T00:00,1\n2023-02-30T00:00,2023-03-01T00:00,1\n");
+
+        var exception = assertThrows(IOException.class, () -> TimeSeriesCsv.read(path, TIME_SERIES_START, TIME_SERIES_END));
+
+        assertTrue(exception.getMessage().startsWith("Zeile 2 "));
+    }
+
+    @Test
+    public void testFormatMatchesDateTimeFormatter() {
+        var random = new Random(7);
+        var formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+        var bytes = new byte[32];
+        for (int i = 0; i < 10_000; i++) {
+            long millis = (random.nextLong() >>> 1) % 253_402_300_800_000L / 1000 * 1000;
+            var expected = EpochTime.toLocalDateTime(millis).format(formatter);
+
+            int length = EpochTimeFormat.formatIso(millis, bytes, 0);
+
+            assertEquals(expected, new String(bytes, 0, length, StandardCharsets.US_ASCII));
+            assertEquals(millis, EpochTimeFormat.parseIso(bytes, 0, length));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSeriesFileTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2023, Month.JANUARY, 11, 0, 0);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testMappedTimeSeriesAnswersLikeTimeSeries() throws IOException {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        for (int minute = 0; minute < 5000; minute += 3) {
+            timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusMinutes(minute), TIME_SERIES_START.plusMinutes(minute + 2), minute % 17));
+        }
+        var path = tempDir.resolve("series.ts");
+
+        TimeSeriesFile.write(timeSeries, path);
+        var mapped = TimeSeriesFile.map(path);
+
+        assertEquals(TIME_SERIES_START, mapped.getStartDate());
+        assertEquals(TIME_SERIES_END, mapped.getEndDate());
+        assertEquals(timeSeries.getTimeSlices().size(), mapped.size());
+        for (int minute = 0; minute < 5000; minute += 7) {
+            var time = TIME_SERIES_START.plusMinutes(minute).plusSeconds(30);
+            var endTime = time.plusMinutes(90);
+            assertEquals(timeSeries.getValueAtTime(time), mapped.getValueAtTime(time), 0.0);
+            assertEquals(timeSeries.getMinValue(time, endTime), mapped.getMinValue(time, endTime), 0.0);
+            assertEquals(timeSeries.getMaxValue(time, endTime), mapped.getMaxValue(time, endTime), 0.0);
+            assertEquals(timeSeries.getAverageValue(time, endTime), mapped.getAverageValue(time, endTime), 0.0);
+            assertEquals(timeSeries.getTimeWeightedAverageValue(time, endTime), mapped.getTimeWeightedAverageValue(time, endTime), 0.0);
+        }
+        assertEquals(timeSeries.getTimeSlices(), mapped.toTimeSeries().getTimeSlices());
+    }
+
+    @Test
+    public void testCompressedFileRoundTrip() throws IOException {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        for (int minute = 0; minute < 5000; minute += 3) {
+            timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusMinutes(minute), TIME_SERIES_START.plusMinutes(minute + 2), minute % 17));
+        }
+        var path = tempDir.resolve("series.tsc");
+
+        TimeSeriesFile.writeCompressed(CompressedTimeSeries.compress(timeSeries), path);
+        var compressed = TimeSeriesFile.readCompressed(path);
+
+        assertEquals(TIME_SERIES_START, compressed.getStartDate());
+        assertEquals(TIME_SERIES_END, compressed.getEndDate());
+        assertEquals(timeSeries.getTimeSlices(), compressed.decompress().getTimeSlices());
+        assertTrue(Files.size(path) * 4 < 24L * timeSeries.getTimeSlices().size());
+    }
+
+    @Test
+    public void testMapRejectsForeignFile() throws IOException {
+        var path = tempDir.resolve("foreign.ts");
+        Files.write(path, new byte[64]);
+
+        assertThrows(IOException.class, () -> TimeSeriesFile.map(path));
+    }
+}
@@ -0,0 +1,73 @@
+package com.matthiast.timeseries;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSeriesMetricsTest {
+    private static final LocalDateTime TIME_SERIES_START = LocalDateTime.of(2023, Month.JANUARY, 1, 0, 0);
+    private static final LocalDateTime TIME_SERIES_END = LocalDateTime.of(2023, Month.JANUARY, 11, 0, 0);
+
+    private final TimeSeriesMetrics metrics = TimeSeriesMetrics.getInstance();
+
+    @BeforeEach
+    public void setUp() {
+        metrics.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        metrics.setEnabled(false);
+        metrics.reset();
+    }
+
+    @Test
+    public void testRecordsOnlyWhileEnabled() throws Exception {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(2), 1.0));
+        timeSeries.getValueAtTime(TIME_SERIES_START.plusDays(1));
+        assertEquals(0, metrics.getValueLookupCount());
+
+        metrics.setEnabled(true);
+        timeSeries.getValueAtTime(TIME_SERIES_START.plusDays(1));
+        timeSeries.getAverageValue(TIME_SERIES_START, TIME_SERIES_END);
+        assertThrows(IllegalArgumentException.class, () -> timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(1), TIME_SERIES_START.plusDays(3), 2.0)));
+        new TimeSeriesAdder().addTimeSeries(timeSeries, timeSeries);
+        new TimeSeriesSubtractor().subtractTimeSeries(timeSeries, timeSeries);
+
+        assertEquals(1, metrics.getValueLookupCount());
+        // Nur getAverageValue durchläuft eine Zeitscheibe; die Suche in getValueAtTime zählt nicht mit
+        assertEquals(1, metrics.getScannedSliceCount());
+        assertEquals(1, metrics.getOverlapRejectionCount());
+        assertEquals(1, metrics.getAddTimeSeriesCount());
+        assertEquals(1, metrics.getSubtractTimeSeriesCount());
+        assertTrue(metrics.getAddTimeSeries99thPercentileNanos() <= metrics.getAddTimeSeriesMaxNanos());
+
+        TimeSeriesMetrics.registerMBean();
+        TimeSeriesMetrics.registerMBean();
+        var server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(1L, server.getAttribute(new ObjectName(TimeSeriesMetrics.OBJECT_NAME), "OverlapRejectionCount"));
+    }
+
+    @Test
+    public void testReversedRangeScansNothing() {
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        for (int day = 0; day < 3; day++) {
+            timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(day), TIME_SERIES_START.plusDays(day + 1), day));
+        }
+        metrics.setEnabled(true);
+
+        timeSeries.getMinValue(TIME_SERIES_END, TIME_SERIES_START);
+        timeSeries.getMaxValue(TIME_SERIES_END, TIME_SERIES_START);
+        timeSeries.getAverageValue(TIME_SERIES_START.plusDays(2), TIME_SERIES_START.plusDays(1));
+
+        assertEquals(0, metrics.getScannedSliceCount());
+    }
+}
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.DoubleStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +25,7 @@ public class TimeSeriesTest {
     private static final LocalDateTime VALID_START2 = LocalDateTime.of(2023, Month.JANUARY, 3, 0, 0);
     private static final LocalDateTime VALID_END2 = LocalDateTime.of(2023, Month.JANUARY, 5, 0, 0);
     private static final double TEST_VALUE2 = 3.0;
+    private static final LocalDateTime TIME_WITHIN_SECOND_SLICE = LocalDateTime.of(2023, Month.JANUARY, 4, 0, 0);
     private static final LocalDateTime INVALID_START = LocalDateTime.of(2023, Month.JANUARY, 12, 0, 0);
     private static final LocalDateTime INVALID_END = LocalDateTime.of(2023, Month.JANUARY, 13, 0, 0);
     private static final LocalDateTime OVERLAPPING_START = LocalDateTime.of(2023, Month.JANUARY, 2, 0, 0);
@@ -78,6 +83,47 @@ public class TimeSeriesTest {
         assertTrue(Double.isNaN(timeSeries.getValueAtTime(VALID_END2)));
     }
 
+    @Test
+    public void testTimeSlicesAreKeptSortedByStartTime() {
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, TEST_VALUE2));
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
+
+        var timeSlices = timeSeries.getTimeSlices();
+
+        assertEquals(VALID_START1, timeSlices.get(0).startTime());
+        assertEquals(VALID_START2, timeSlices.get(1).startTime());
+        assertThrows(UnsupportedOperationException.class, () -> timeSlices.remove(0));
+    }
+
+    @Test
+    public void testTimeSlicesViewReflectsLaterChanges() {
+        var timeSlices = timeSeries.getTimeSlices();
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
+
+        assertEquals(1, timeSlices.size());
+        assertEquals(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1), timeSlices.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> timeSlices.get(1));
+    }
+
+    @Test
+    public void testOverlappingTimeSliceInsertedBeforeExistingSlice() {
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, TEST_VALUE2));
+
+        assertThrows(IllegalArgumentException.class, () -> timeSeries.addTimeSlice(new TimeSlice(VALID_START1, TIME_WITHIN_SECOND_SLICE, TEST_VALUE1)));
+        assertEquals(1, timeSeries.getTimeSlices().size());
+    }
+
+    @Test
+    public void testRemoveTimeSliceKeepsNeighbours() {
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, TEST_VALUE2));
+
+        timeSeries.removeTimeSlice(VALID_START1, VALID_END1);
+
+        assertTrue(Double.isNaN(timeSeries.getValueAtTime(TIME_WITHIN_TIME_SLICE)));
+        assertEquals(TEST_VALUE2, timeSeries.getValueAtTime(TIME_WITHIN_SECOND_SLICE), 0.0);
+    }
+
     @Test
     public void testGetValueAtTimeWithinTimeSlice() {
         timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
@@ -150,6 +196,143 @@ public class TimeSeriesTest {
         assertTrue(Double.isNaN(avgValue));
     }
 
+    @Test
+    public void testGetTimeWeightedAverageValueClipsEdgeSlices() {
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, TEST_VALUE2));
+
+        double avgValue = timeSeries.getTimeWeightedAverageValue(TIME_WITHIN_TIME_SLICE, TIME_WITHIN_SECOND_SLICE);
+
+        assertEquals((TEST_VALUE1 + TEST_VALUE2) / 2, avgValue, 0.0);
+        assertTrue(Double.isNaN(timeSeries.getTimeWeightedAverageValue(INVALID_START, INVALID_END)));
+    }
+
+    @Test
+    public void testAggregationIndexMatchesLinearScan() {
+        var indexed = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        indexed.setAggregationIndexEnabled(true);
+        for (int hour = 0; hour < 200; hour += 2) {
+            var slice = new TimeSlice(TIME_SERIES_START.plusHours(hour), TIME_SERIES_START.plusHours(hour + 1), (hour * 37) % 11 - 5.0);
+            timeSeries.addTimeSlice(slice);
+            indexed.addTimeSlice(slice);
+        }
+
+        for (int from = 0; from < 200; from += 7) {
+            for (int to = from + 1; to < 210; to += 13) {
+                var startTime = TIME_SERIES_START.plusHours(from).plusMinutes(30);
+                var endTime = TIME_SERIES_START.plusHours(to);
+                assertEquals(timeSeries.getMinValue(startTime, endTime), indexed.getMinValue(startTime, endTime), 0.0);
+                assertEquals(timeSeries.getMaxValue(startTime, endTime), indexed.getMaxValue(startTime, endTime), 0.0);
+                assertEquals(timeSeries.getAverageValue(startTime, endTime), indexed.getAverageValue(startTime, endTime), 1e-9);
+                assertEquals(timeSeries.getTimeWeightedAverageValue(startTime, endTime), indexed.getTimeWeightedAverageValue(startTime, endTime), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testEpochMillisOverloadsMatchLocalDateTime() {
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, TEST_VALUE2));
+        long start = EpochTime.toEpochMillis(TIME_WITHIN_TIME_SLICE);
+        long end = EpochTime.toEpochMillis(TIME_WITHIN_SECOND_SLICE);
+
+        assertEquals(TEST_VALUE1, timeSeries.getValueAtTime(start), 0.0);
+        assertEquals(timeSeries.getMinValue(TIME_WITHIN_TIME_SLICE, TIME_WITHIN_SECOND_SLICE), timeSeries.getMinValue(start, end), 0.0);
+        assertEquals(timeSeries.getMaxValue(TIME_WITHIN_TIME_SLICE, TIME_WITHIN_SECOND_SLICE), timeSeries.getMaxValue(start, end), 0.0);
+        assertEquals(timeSeries.getAverageValue(TIME_WITHIN_TIME_SLICE, TIME_WITHIN_SECOND_SLICE), timeSeries.getAverageValue(start, end), 0.0);
+        assertEquals(timeSeries.getTimeWeightedAverageValue(TIME_WITHIN_TIME_SLICE, TIME_WITHIN_SECOND_SLICE), timeSeries.getTimeWeightedAverageValue(start, end), 0.0);
+    }
+
+    @Test
+    public void testGetValuesAtTimesMatchesGetValueAtTime() {
+        for (int hour = 0; hour < 200; hour += 2) {
+            timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusHours(hour), TIME_SERIES_START.plusHours(hour + 1), hour));
+        }
+        long first = EpochTime.toEpochMillis(TIME_SERIES_START);
+        // Aufsteigend mit Sprüngen, dann ein Rücksprung
+        long[] times = new long[300];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = first + (i < 250 ? i * i * 20_000L : (i - 250) * 3_600_000L + 1_800_000L);
+        }
+        double[] values = new double[times.length];
+
+        timeSeries.getValuesAtTimes(times, values);
+
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(timeSeries.getValueAtTime(times[i]), values[i], 0.0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> timeSeries.getValuesAtTimes(times, new double[1]));
+    }
+
+    @Test
+    public void testAggregationIndexIsInvalidatedOnChange() {
+        timeSeries.setAggregationIndexEnabled(true);
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
+        assertEquals(TEST_VALUE1, timeSeries.getMaxValue(VALID_START1, VALID_END2), 0.0);
+
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, 9.0));
+        assertEquals(9.0, timeSeries.getMaxValue(VALID_START1, VALID_END2), 0.0);
+
+        timeSeries.removeTimeSlice(VALID_START2, VALID_END2);
+        assertEquals(TEST_VALUE1, timeSeries.getMaxValue(VALID_START1, VALID_END2), 0.0);
+    }
+
+    @Test
+    public void testBuilderCreatesImmutableTimeSeries() {
+        var built = TimeSeries.builder(TIME_SERIES_START, TIME_SERIES_END)
+                .expectedSize(2)
+                .addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1))
+                .addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, TEST_VALUE2))
+                .build();
+
+        assertTrue(built.isImmutable());
+        assertEquals(2, built.getTimeSlices().size());
+        assertEquals(TEST_VALUE2, built.getValueAtTime(TIME_WITHIN_SECOND_SLICE), 0.0);
+        assertThrows(UnsupportedOperationException.class, () -> built.addTimeSlice(new TimeSlice(VALID_END2, TIME_SERIES_END, TEST_VALUE1)));
+        assertThrows(UnsupportedOperationException.class, () -> built.removeTimeSlice(VALID_START1, VALID_END1));
+    }
+
+    @Test
+    public void testBuilderRejectsUnsortedAndOverlappingTimeSlices() {
+        var builder = TimeSeries.builder(TIME_SERIES_START, TIME_SERIES_END)
+                .addTimeSlice(new TimeSlice(VALID_START2, VALID_END2, TEST_VALUE2));
+
+        Exception unsorted = assertThrows(IllegalArgumentException.class, () -> builder.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1)));
+        assertEquals("Die Zeitscheiben müssen nach Startzeit sortiert sein", unsorted.getMessage());
+
+        Exception overlapping = assertThrows(IllegalArgumentException.class, () -> builder.addTimeSlice(new TimeSlice(TIME_WITHIN_SECOND_SLICE, TIME_SERIES_END, TEST_VALUE1)));
+        assertEquals("Die Zeitscheiben dürfen sich nicht überlappen", overlapping.getMessage());
+
+        // Eine Zeitscheibe ohne Dauer gehört vor die Zeitscheibe mit gleicher Startzeit
+        var zeroLength = TimeSeries.builder(TIME_SERIES_START, TIME_SERIES_END)
+                .addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1));
+        Exception unsortedZeroLength = assertThrows(IllegalArgumentException.class, () -> zeroLength.addTimeSlice(new TimeSlice(VALID_START1, VALID_START1, TEST_VALUE2)));
+        assertEquals("Die Zeitscheiben müssen nach Startzeit sortiert sein", unsortedZeroLength.getMessage());
+        var sorted = TimeSeries.builder(TIME_SERIES_START, TIME_SERIES_END)
+                .addTimeSlice(new TimeSlice(VALID_START1, VALID_START1, TEST_VALUE2))
+                .addTimeSlice(new TimeSlice(VALID_START1, VALID_END1, TEST_VALUE1))
+                .build();
+        assertEquals(2, sorted.getTimeSlices().size());
+    }
+
+    @Test
+    public void testResampleDaily() {
+        timeSeries.addTimeSlice(new TimeSlice(VALID_START1, VALID_END1.plusHours(12), TEST_VALUE1));
+        timeSeries.addTimeSlice(new TimeSlice(VALID_END1.plusHours(12), VALID_END2, TEST_VALUE2));
+
+        var mean = timeSeries.resample(TIME_SERIES_START, TIME_SERIES_START.plusDays(5), Duration.ofDays(1), Aggregation.MEAN);
+        var sum = timeSeries.resample(TIME_SERIES_START, TIME_SERIES_START.plusDays(5), Duration.ofDays(1), Aggregation.SUM);
+        var max = timeSeries.resample(TIME_SERIES_START, TIME_SERIES_START.plusDays(5), Duration.ofDays(1), Aggregation.MAX);
+        var last = timeSeries.resample(TIME_SERIES_START, TIME_SERIES_START.plusDays(5), Duration.ofDays(1), Aggregation.LAST);
+
+        assertArrayEquals(new double[]{5.0, 5.0, 4.0, 3.0, Double.NaN}, mean.getValues(), 0.0);
+        assertArrayEquals(new double[]{2.0, 2.0, 2.0, 2.0, Double.NaN}, sum.getValues(), 1e-12);
+        assertArrayEquals(new double[]{5.0, 5.0, 5.0, 3.0, Double.NaN}, max.getValues(), 0.0);
+        assertArrayEquals(new double[]{5.0, 5.0, 3.0, 3.0, Double.NaN}, last.getValues(), 0.0);
+        assertEquals(TIME_SERIES_START.plusDays(2), mean.getIntervalStart(2));
+        assertEquals(4, mean.toTimeSeries().getTimeSlices().size());
+    }
+
     @Test
     public void testPrintTimeSeries() {
         var timeSeries = setupTimeSeriesA();
@@ -168,6 +351,22 @@ public class TimeSeriesTest {
         assertEquals(expectedOutput, output);
     }
 
+    @Test
+    public void testPrintLargeTimeSeriesInBlocks() {
+        for (int minute = 0; minute < 5000; minute++) {
+            timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusMinutes(minute), TIME_SERIES_START.plusMinutes(minute + 1), minute));
+        }
+
+        var printStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printStream));
+        timeSeriesPrinter.printTimeSeries(timeSeries);
+        var lines = printStream.toString().split(System.lineSeparator());
+
+        assertEquals(5001, lines.length);
+        assertEquals("Startdatum: 01.01.2023 00:00, Enddatum: 01.01.2023 00:01, Wert: 0.0", lines[1]);
+        assertEquals("Startdatum: 04.01.2023 11:19, Enddatum: 04.01.2023 11:20, Wert: 4999.0", lines[5000]);
+    }
+
     @Test
     void testAddTimeSeries() {
         TimeSeries timeSeriesA = setupTimeSeriesA();
@@ -197,6 +396,141 @@ public class TimeSeriesTest {
 
     }
 
+    @Test
+    void testAddTimeSeriesWithSliceSpanningSeveralSlices() {
+        TimeSeries timeSeriesA = setupTimeSeriesA();
+        TimeSeries timeSeriesC = new TimeSeries(LocalDateTime.of(2023, 1, 4, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0));
+        timeSeriesC.addTimeSlice(new TimeSlice(LocalDateTime.of(2023, 1, 4, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0), 1.0));
+        var result = timeSeriesAdder.addTimeSeries(timeSeriesA, timeSeriesC);
+
+        var timeSlices = result.getTimeSlices();
+        assertEquals(5, timeSlices.size());
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 3, 0, 0), LocalDateTime.of(2023, 1, 4, 0, 0), 2.0), timeSlices.get(0));
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 4, 0, 0), LocalDateTime.of(2023, 1, 5, 0, 0), 3.0), timeSlices.get(1));
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 5, 0, 0), LocalDateTime.of(2023, 1, 6, 0, 0), 1.0), timeSlices.get(2));
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 6, 0, 0), LocalDateTime.of(2023, 1, 7, 0, 0), 4.0), timeSlices.get(3));
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 7, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0), 1.0), timeSlices.get(4));
+    }
+
+    @Test
+    void testSubtractTimeSeriesJoinsEqualNeighbours() {
+        TimeSeries timeSeriesB = setupTimeSeriesB();
+        var result = timeSeriesSubtractor.subtractTimeSeries(timeSeriesB, setupTimeSeriesB());
+
+        assertEquals(2, result.getTimeSlices().size());
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 5, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0), 0.0), result.getTimeSlices().get(0));
+        assertEquals(new TimeSlice(LocalDateTime.of(2023, 1, 9, 0, 0), LocalDateTime.of(2023, 1, 10, 0, 0), 0.0), result.getTimeSlices().get(1));
+    }
+
+    @Test
+    void testAddAllMatchesChainedAddTimeSeries() {
+        TimeSeries timeSeriesA = setupTimeSeriesA();
+        TimeSeries timeSeriesB = setupTimeSeriesB();
+        TimeSeries timeSeriesC = new TimeSeries(LocalDateTime.of(2023, 1, 4, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0));
+        timeSeriesC.addTimeSlice(new TimeSlice(LocalDateTime.of(2023, 1, 4, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0), 1.0));
+
+        var expected = timeSeriesAdder.addTimeSeries(timeSeriesAdder.addTimeSeries(timeSeriesA, timeSeriesB), timeSeriesC);
+        var result = timeSeriesAdder.addAll(List.of(timeSeriesA, timeSeriesB, timeSeriesC));
+
+        assertEquals(expected.getStartDate(), result.getStartDate());
+        assertEquals(expected.getEndDate(), result.getEndDate());
+        assertEquals(expected.getTimeSlices(), result.getTimeSlices());
+    }
+
+    @Test
+    void testSubtractAllMatchesSubtractTimeSeries() {
+        TimeSeries timeSeriesA = setupTimeSeriesA();
+        TimeSeries timeSeriesB = setupTimeSeriesB();
+
+        var expected = timeSeriesSubtractor.subtractTimeSeries(timeSeriesA, timeSeriesB);
+        var result = timeSeriesSubtractor.subtractAll(timeSeriesA, List.of(timeSeriesB));
+
+        assertEquals(expected.getTimeSlices(), result.getTimeSlices());
+    }
+
+    @Test
+    void testAddAllOfManyLongSeriesJoinsChunks() {
+        var profiles = new ArrayList<TimeSeries>();
+        for (int household = 0; household < 4; household++) {
+            var builder = TimeSeries.builder(TIME_SERIES_START, TIME_SERIES_START.plusYears(3));
+            for (int quarter = 0; quarter < 100_000; quarter++) {
+                var start = TIME_SERIES_START.plusMinutes(15L * quarter);
+                builder.addTimeSlice(new TimeSlice(start, start.plusMinutes(15), household + quarter % 4));
+            }
+            profiles.add(builder.build());
+        }
+
+        var result = timeSeriesAdder.addAll(profiles);
+
+        var expected = profiles.get(0);
+        for (int i = 1; i < profiles.size(); i++) {
+            expected = timeSeriesAdder.addTimeSeries(expected, profiles.get(i));
+        }
+        assertEquals(expected.getTimeSlices(), result.getTimeSlices());
+    }
+
+    @Test
+    void testCursorPipelineMatchesMaterializedOperations() {
+        TimeSeries timeSeriesA = setupTimeSeriesA();
+        TimeSeries timeSeriesB = setupTimeSeriesB();
+        TimeSeries timeSeriesC = new TimeSeries(LocalDateTime.of(2023, 1, 4, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0));
+        timeSeriesC.addTimeSlice(new TimeSlice(LocalDateTime.of(2023, 1, 4, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0), 1.0));
+        var expected = timeSeriesSubtractor.subtractTimeSeries(timeSeriesAdder.addTimeSeries(timeSeriesA, timeSeriesB), timeSeriesC);
+
+        var pipeline = timeSeriesSubtractor.subtract(timeSeriesAdder.add(timeSeriesA.cursor(), timeSeriesB.cursor()), timeSeriesC.cursor());
+        var result = SliceCursors.toTimeSeries(pipeline, expected.getStartDate(), expected.getEndDate());
+
+        assertEquals(expected.getTimeSlices(), result.getTimeSlices());
+        var start = LocalDateTime.of(2023, 1, 4, 12, 0);
+        var end = LocalDateTime.of(2023, 1, 9, 12, 0);
+        var sum = timeSeriesAdder.addTimeSeries(timeSeriesA, timeSeriesB);
+        assertEquals(sum.getMaxValue(start, end), SliceCursors.getMaxValue(timeSeriesAdder.add(timeSeriesA.cursor(), timeSeriesB.cursor()), start, end), 0.0);
+        assertEquals(expected.getMinValue(start, end), SliceCursors.getMinValue(result.cursor(), start, end), 0.0);
+        assertEquals(expected.getAverageValue(start, end), SliceCursors.getAverageValue(result.cursor(), start, end), 0.0);
+    }
+
+    @Test
+    void testRollingWindowMatchesRangeQueries() {
+        var random = new Random(5);
+        var timeSeries = new TimeSeries(TIME_SERIES_START, TIME_SERIES_END);
+        var start = TIME_SERIES_START;
+        // Lücken, Zeitscheiben ohne Dauer und vereinzelte NaN-Werte
+        for (int i = 0; i < 3000; i++) {
+            var end = start.plusMinutes(random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(5));
+            timeSeries.addTimeSlice(new TimeSlice(start, end, random.nextInt(50) == 0 ? Double.NaN : random.nextInt(20) - 10));
+            start = end.plusMinutes(random.nextInt(3) == 0 ? random.nextInt(10) : 0);
+        }
+        var window = Duration.ofHours(2);
+
+        var mean = timeSeries.rolling(window, Aggregation.MEAN);
+        var min = timeSeries.rolling(window, Aggregation.MIN);
+        var max = timeSeries.rolling(window, Aggregation.MAX);
+
+        assertTrue(mean.hasSameBoundariesAs(timeSeries));
+        for (int i = 0; i < timeSeries.size(); i++) {
+            long end = timeSeries.endTimeAt(i);
+            long windowStart = end - window.toMillis();
+            assertEquals(timeSeries.getTimeWeightedAverageValue(windowStart, end), mean.valueAt(i), 1e-9);
+            assertEquals(timeSeries.getMinValue(windowStart, end), min.valueAt(i), 0.0);
+            assertEquals(timeSeries.getMaxValue(windowStart, end), max.valueAt(i), 0.0);
+        }
+    }
+
+    @Test
+    void testRollingWindowDaily() {
+        timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START, TIME_SERIES_START.plusDays(1), 4.0));
+        timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(1), TIME_SERIES_START.plusDays(2), 2.0));
+        timeSeries.addTimeSlice(new TimeSlice(TIME_SERIES_START.plusDays(3), TIME_SERIES_START.plusDays(4), 6.0));
+
+        var mean = timeSeries.rolling(Duration.ofDays(2), Aggregation.MEAN);
+        var max = timeSeries.rolling(Duration.ofDays(2), Aggregation.MAX);
+
+        assertEquals(List.of(4.0, 3.0, 6.0), mean.getTimeSlices().stream().map(TimeSlice::value).toList());
+        assertEquals(List.of(4.0, 4.0, 6.0), max.getTimeSlices().stream().map(TimeSlice::value).toList());
+        assertThrows(IllegalArgumentException.class, () -> timeSeries.rolling(Duration.ofDays(2), Aggregation.LAST));
+        assertThrows(IllegalArgumentException.class, () -> timeSeries.rolling(Duration.ZERO, Aggregation.MIN));
+    }
+
     private TimeSeries setupTimeSeriesA() {
         TimeSeries timeSeries = new TimeSeries(LocalDateTime.of(2023, 1, 3, 0, 0), LocalDateTime.of(2023, 1, 8, 0, 0));
         timeSeries.addTimeSlice(new TimeSlice(LocalDateTime.of(2023, 1, 3, 0, 0), LocalDateTime.of(2023, 1, 5, 0, 0), 2.0));